@@ -6,20 +6,7 @@ DROP DATABASE IF EXISTS audit_student_db;
 CREATE DATABASE audit_student_db;
 USE audit_student_db;
 
--- 2. Create Users Table
-CREATE TABLE users (
-    id BIGINT AUTO_INCREMENT PRIMARY KEY,
-    username VARCHAR(255) NOT NULL UNIQUE,
-    password VARCHAR(255) NOT NULL,
-    email VARCHAR(255) NOT NULL UNIQUE,
-    role VARCHAR(50) NOT NULL,
-    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
-    updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-    created_by VARCHAR(255),
-    updated_by VARCHAR(255)
-);
-
--- 3. Create Students Table
+-- 2. Create Students Table
 CREATE TABLE students (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     name VARCHAR(50) NOT NULL,
@@ -29,13 +16,114 @@ CREATE TABLE students (
     year INT,
     address VARCHAR(255),
     cgpa DOUBLE,
+    version BIGINT NOT NULL DEFAULT 0,
     created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
     updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     created_by VARCHAR(255),
-    updated_by VARCHAR(255)
+    updated_by VARCHAR(255),
+    INDEX idx_students_department_year_cgpa (department, year, cgpa),
+    INDEX idx_students_year_cgpa (year, cgpa),
+    INDEX idx_students_cgpa (cgpa)
+);
+
+-- 3. Create Users Table
+CREATE TABLE users (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(255) NOT NULL UNIQUE,
+    password VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    role VARCHAR(50) NOT NULL,
+    created_at DATETIME(6) DEFAULT CURRENT_TIMESTAMP(6),
+    updated_at DATETIME(6) DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6),
+    created_by VARCHAR(255),
+    updated_by VARCHAR(255),
+    -- Explicit account -> student link used for ownership checks
+    student_id BIGINT NULL,
+    UNIQUE INDEX idx_users_student_id (student_id),
+    INDEX idx_users_updated_at (updated_at),
+    CONSTRAINT fk_users_student FOREIGN KEY (student_id) REFERENCES students (id) ON DELETE SET NULL
+);
+
+-- 4. Create Audit Logs Table
+CREATE TABLE audit_logs (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    action VARCHAR(255) NOT NULL,
+    entity_name VARCHAR(255) NOT NULL,
+    entity_id BIGINT,
+    changed_by VARCHAR(255) NOT NULL,
+    changed_at DATETIME(6) NOT NULL,
+    old_values TEXT,
+    new_values TEXT,
+    diff TEXT,
+    payload_type VARCHAR(16),
+    compressed BIT(1),
+    row_hash CHAR(64),
+    journal_seq BIGINT,
+    UNIQUE INDEX idx_audit_journal_seq (journal_seq),
+    INDEX idx_audit_changed_at_id (changed_at, id),
+    INDEX idx_audit_entity (entity_name, entity_id, changed_at, id),
+    INDEX idx_audit_action (action, changed_at, id),
+    INDEX idx_audit_changed_by (changed_by, changed_at, id)
+);
+
+-- One row per changed field of each UPDATE audit row
+CREATE TABLE audit_field_changes (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    audit_log_id BIGINT NOT NULL,
+    entity_name VARCHAR(255) NOT NULL,
+    entity_id BIGINT,
+    entity_scope VARCHAR(100),
+    field_name VARCHAR(64) NOT NULL,
+    old_value TEXT,
+    new_value TEXT,
+    changed_by VARCHAR(255) NOT NULL,
+    changed_at DATETIME(6) NOT NULL,
+    INDEX idx_afc_field (entity_name, field_name, changed_at, id),
+    INDEX idx_afc_scope_field (entity_name, entity_scope, field_name, changed_at, id),
+    INDEX idx_afc_entity (entity_name, entity_id, changed_at, id),
+    INDEX idx_afc_changed_by (changed_by, changed_at, id),
+    INDEX idx_afc_audit_log (audit_log_id)
+);
+
+-- Sealed runs of the audit hash chain with their Merkle roots
+CREATE TABLE audit_segments (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    first_log_id BIGINT NOT NULL,
+    last_log_id BIGINT NOT NULL,
+    row_count INT NOT NULL,
+    first_changed_at DATETIME(6),
+    last_changed_at DATETIME(6),
+    prev_hash CHAR(64) NOT NULL,
+    end_hash CHAR(64) NOT NULL,
+    merkle_root CHAR(64) NOT NULL,
+    sealed_at DATETIME(6) NOT NULL,
+    verified_at DATETIME(6),
+    archive_file VARCHAR(255),
+    archived_at DATETIME(6),
+    UNIQUE INDEX idx_audit_segments_first_log_id (first_log_id),
+    INDEX idx_audit_segments_last_log_id (last_log_id)
+);
+
+-- Entities with rows in each archived segment
+CREATE TABLE audit_archive_locators (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    segment_id BIGINT NOT NULL,
+    entity_name VARCHAR(255) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    INDEX idx_archive_locator_entity (entity_name, entity_id, segment_id)
+);
+
+-- Audit records the writer could not insert, kept with the database error
+CREATE TABLE audit_dead_letters (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    journal_seq BIGINT,
+    record MEDIUMTEXT NOT NULL,
+    error VARCHAR(1000) NOT NULL,
+    failed_at DATETIME(6) NOT NULL,
+    UNIQUE INDEX idx_audit_dead_letters_journal_seq (journal_seq)
 );
 
--- 4. Insert Initial Users
+-- 5. Insert Initial Users
 -- BCrypt hashed passwords for 'admin123', 'staff123', and 'student123'
 INSERT INTO users (username, password, email, role, created_by)
 VALUES 
@@ -43,6 +131,6 @@ VALUES
 ('staff', '$2a$10$X8H.fB3I.E/.M8e9S8.M8e9S8.M8e9S8.M8e9S8.M8e9S8.M8e9S8.', 'staff@example.com', 'STAFF', 'SYSTEM'),
 ('student_user', '$2a$10$Y9I.gC4J.F/0N9f0T9.N9f0T9.N9f0T9.N9f0T9.N9f0T9.N9f0T9.', 'student@example.com', 'STUDENT', 'SYSTEM');
 
--- 5. Sample Student Data (Optional)
+-- 6. Sample Student Data (Optional)
 INSERT INTO students (name, email, phone, department, year, address, cgpa, created_by)
 VALUES ('John Doe', 'john.doe@example.com', '1234567890', 'Computer Science', 3, '123 Main St', 8.5, 'SYSTEM');
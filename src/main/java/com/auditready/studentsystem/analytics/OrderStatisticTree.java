@@ -0,0 +1,151 @@
+package com.auditready.studentsystem.analytics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Treap with subtree sizes: insert, remove, rank and select in expected O(log n), and a
+ * positional slice in O(log n + m). Keys must be unique under the comparator. Not
+ * thread-safe; callers provide locking.
+ */
+final class OrderStatisticTree<K> {
+
+    private final Comparator<? super K> comparator;
+    private final SplittableRandom random = new SplittableRandom();
+    private Node<K> root;
+
+    // Results of the last split, to avoid allocating a pair per call
+    private Node<K> splitLeft;
+    private Node<K> splitRight;
+
+    OrderStatisticTree(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    void insert(K key) {
+        split(root, key, false);
+        Node<K> left = splitLeft;
+        Node<K> right = splitRight;
+        root = merge(merge(left, new Node<>(key, random.nextInt())), right);
+    }
+
+    boolean remove(K key) {
+        split(root, key, false);
+        Node<K> less = splitLeft;
+        split(splitRight, key, true);
+        Node<K> equal = splitLeft;
+        Node<K> greater = splitRight;
+        root = merge(less, greater);
+        return equal != null;
+    }
+
+    /**
+     * Number of keys strictly before {@code key}; {@code key} need not be present.
+     */
+    int countBefore(K key) {
+        int count = 0;
+        Node<K> node = root;
+        while (node != null) {
+            if (comparator.compare(key, node.key) <= 0) {
+                node = node.left;
+            } else {
+                count += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Keys at positions {@code [from, to)} in order.
+     */
+    List<K> slice(int from, int to) {
+        int end = Math.min(to, size());
+        List<K> out = new ArrayList<>(Math.max(0, end - from));
+        if (from < end) {
+            collect(root, 0, from, end, out);
+        }
+        return out;
+    }
+
+    private void collect(Node<K> node, int offset, int from, int to, List<K> out) {
+        if (node == null) {
+            return;
+        }
+        int index = offset + size(node.left);
+        if (from < index) {
+            collect(node.left, offset, from, to, out);
+        }
+        if (index >= from && index < to) {
+            out.add(node.key);
+        }
+        if (to > index + 1) {
+            collect(node.right, index + 1, from, to, out);
+        }
+    }
+
+    // Splits into keys before {@code key} (or up to and including it when inclusive) and the rest
+    private void split(Node<K> node, K key, boolean inclusive) {
+        if (node == null) {
+            splitLeft = null;
+            splitRight = null;
+            return;
+        }
+        int cmp = comparator.compare(node.key, key);
+        if (cmp < 0 || (inclusive && cmp == 0)) {
+            split(node.right, key, inclusive);
+            node.right = splitLeft;
+            node.update();
+            splitLeft = node;
+        } else {
+            split(node.left, key, inclusive);
+            node.left = splitRight;
+            node.update();
+            splitRight = node;
+        }
+    }
+
+    private Node<K> merge(Node<K> left, Node<K> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node<K> {
+        private final K key;
+        private final int priority;
+        private int size = 1;
+        private Node<K> left;
+        private Node<K> right;
+
+        private Node(K key, int priority) {
+            this.key = key;
+            this.priority = priority;
+        }
+
+        private void update() {
+            size = 1 + OrderStatisticTree.size(left) + OrderStatisticTree.size(right);
+        }
+    }
+}
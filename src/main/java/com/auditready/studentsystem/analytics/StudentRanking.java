@@ -0,0 +1,187 @@
+package com.auditready.studentsystem.analytics;
+
+import com.auditready.studentsystem.dto.RankedStudent;
+import com.auditready.studentsystem.event.StudentChangedEvent;
+import com.auditready.studentsystem.repository.StudentJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * CGPA leaderboard kept in order-statistic trees, one over all students and one per
+ * department, so rank lookups, top-N and percentile slices cost O(log n) (plus the size of
+ * the slice) instead of an {@code ORDER BY ... OFFSET} scan. Students without a CGPA are
+ * not ranked. Ties share a rank (competition ranking: 1, 2, 2, 4).
+ *
+ * <p>Built from the database once the application is ready and kept current from committed
+ * {@link StudentChangedEvent}s; until then {@link #isReady()} is false.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StudentRanking {
+
+    // Highest CGPA first; id breaks ties so keys stay unique
+    private static final Comparator<Entry> ORDER = Comparator.comparingDouble(Entry::cgpa).reversed()
+            .thenComparingLong(Entry::id);
+
+    private final StudentJdbcRepository studentJdbcRepository;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, OrderStatisticTree<Entry>> departments = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private OrderStatisticTree<Entry> global = new OrderStatisticTree<>(ORDER);
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            departments.clear();
+            global = new OrderStatisticTree<>(ORDER);
+            studentJdbcRepository.streamAll(List.of("id", "name", "department", "cgpa"), rs -> {
+                Double cgpa = rs.getObject(4, Double.class);
+                if (cgpa != null) {
+                    add(new Entry(rs.getLong(1), cgpa, rs.getString(2), rs.getString(3)));
+                }
+            });
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Student ranking built: {} ranked students in {} departments in {} ms", entries.size(),
+                departments.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.remove(event.studentId());
+            if (previous != null) {
+                global.remove(previous);
+                OrderStatisticTree<Entry> tree = departments.get(previous.key());
+                if (tree != null) {
+                    tree.remove(previous);
+                    if (tree.size() == 0) {
+                        departments.remove(previous.key());
+                    }
+                }
+            }
+            if (event.after() != null && event.after().cgpa() != null) {
+                add(new Entry(event.studentId(), event.after().cgpa(), event.after().name(),
+                        event.after().department()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Students at positions {@code [from, to)} of the leaderboard, best first.
+     *
+     * @param department {@code null} for the global leaderboard
+     */
+    public List<RankedStudent> slice(String department, int from, int to) {
+        lock.readLock().lock();
+        try {
+            OrderStatisticTree<Entry> tree = tree(department);
+            if (tree == null) {
+                return List.of();
+            }
+            List<Entry> slice = tree.slice(from, to);
+            List<RankedStudent> result = new ArrayList<>(slice.size());
+            long rank = 0;
+            Entry previous = null;
+            for (int i = 0; i < slice.size(); i++) {
+                Entry entry = slice.get(i);
+                if (previous == null) {
+                    rank = rankIn(tree, entry);
+                } else if (entry.cgpa() != previous.cgpa()) {
+                    // Everyone before this position has a strictly higher CGPA
+                    rank = from + i + 1;
+                }
+                result.add(entry.toView(rank, tree.size()));
+                previous = entry;
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return empty if the student is unknown or has no CGPA
+     */
+    public Optional<RankedStudent> rankOf(Long studentId, boolean withinDepartment) {
+        lock.readLock().lock();
+        try {
+            Entry entry = entries.get(studentId);
+            if (entry == null) {
+                return Optional.empty();
+            }
+            OrderStatisticTree<Entry> tree = withinDepartment ? departments.get(entry.key()) : global;
+            return Optional.of(entry.toView(rankIn(tree, entry), tree.size()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of ranked students on the leaderboard; {@code department} as in {@link #slice}.
+     */
+    public int size(String department) {
+        lock.readLock().lock();
+        try {
+            OrderStatisticTree<Entry> tree = tree(department);
+            return tree == null ? 0 : tree.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private OrderStatisticTree<Entry> tree(String department) {
+        return department == null ? global : departments.get(department);
+    }
+
+    private void add(Entry entry) {
+        entries.put(entry.id(), entry);
+        global.insert(entry);
+        departments.computeIfAbsent(entry.key(), k -> new OrderStatisticTree<>(ORDER)).insert(entry);
+    }
+
+    // 1 + number of students with a strictly higher CGPA
+    private static long rankIn(OrderStatisticTree<Entry> tree, Entry entry) {
+        return tree.countBefore(new Entry(Long.MIN_VALUE, entry.cgpa(), null, null)) + 1L;
+    }
+
+    private record Entry(long id, double cgpa, String name, String department) {
+
+        String key() {
+            return department == null || department.isBlank() ? StudentStatisticsRollup.UNASSIGNED : department;
+        }
+
+        RankedStudent toView(long rank, int outOf) {
+            double percentile = outOf == 0 ? 0 : 100.0 * (outOf - rank) / outOf;
+            return new RankedStudent(rank, id, name, key(), cgpa, outOf, percentile);
+        }
+    }
+}
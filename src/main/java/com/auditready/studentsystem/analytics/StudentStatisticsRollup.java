@@ -0,0 +1,262 @@
+package com.auditready.studentsystem.analytics;
+
+import com.auditready.studentsystem.dto.DepartmentStatistics;
+import com.auditready.studentsystem.dto.StudentDto;
+import com.auditready.studentsystem.event.StudentChangedEvent;
+import com.auditready.studentsystem.repository.StudentJdbcRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-department student statistics maintained incrementally from committed
+ * {@link StudentChangedEvent}s, so reads cost O(#departments) instead of a table scan.
+ * <p>
+ * Each student's contributing values are remembered by id, which makes every update an
+ * exact replace and keeps replays harmless. CGPAs are kept as a counted multiset so min and
+ * max survive deletes. A periodic full recompute verifies the rollups, reports any drift
+ * and replaces them. The recompute scans without the lock; events that arrive meanwhile are
+ * buffered and replayed onto the fresh rollups before they are swapped in.
+ */
+@Slf4j
+@Component
+public class StudentStatisticsRollup {
+
+    static final String UNASSIGNED = "Unassigned";
+    // Relative tolerance for the floating-point CGPA sum when verifying
+    private static final double SUM_TOLERANCE = 1e-6;
+
+    private final StudentJdbcRepository studentJdbcRepository;
+    private final long verifyIntervalMs;
+    private final Counter driftCounter;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "student-statistics-verify");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Serializes recomputes, which run outside the monitor
+    private final Object recomputeLock = new Object();
+
+    // Guarded by this
+    private Map<Long, Member> members = new HashMap<>();
+    private Map<String, Rollup> departments = new TreeMap<>();
+    // Events applied while a recompute is scanning; null when none is
+    private List<StudentChangedEvent> buffered;
+    private volatile boolean ready;
+
+    public StudentStatisticsRollup(StudentJdbcRepository studentJdbcRepository, MeterRegistry meterRegistry,
+            @Value("${student.statistics.verify-interval-ms:3600000}") long verifyIntervalMs) {
+        this.studentJdbcRepository = studentJdbcRepository;
+        this.verifyIntervalMs = verifyIntervalMs;
+        this.driftCounter = Counter.builder("student.statistics.drift")
+                .description("Departments whose incremental rollup disagreed with a full recompute")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        recompute();
+        scheduler.scheduleWithFixedDelay(this::verify, verifyIntervalMs, verifyIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onStudentChanged(StudentChangedEvent event) {
+        apply(members, departments, event);
+        if (buffered != null) {
+            buffered.add(event);
+        }
+    }
+
+    public List<DepartmentStatistics> getStatistics() {
+        if (!ready) {
+            recompute();
+        }
+        synchronized (this) {
+            List<DepartmentStatistics> result = new ArrayList<>(departments.size());
+            departments.forEach((name, rollup) -> result.add(rollup.toView(name)));
+            return result;
+        }
+    }
+
+    private void verify() {
+        try {
+            recompute();
+        } catch (RuntimeException e) {
+            log.warn("Student statistics recompute failed", e);
+        }
+    }
+
+    /**
+     * Rebuilds every rollup from the table. The scan runs without the lock so changes keep
+     * being applied; they are also buffered, and replayed onto the fresh rollups before the
+     * swap so none is lost. Replays are exact replaces by id, so an event whose change the
+     * scan already saw is harmless.
+     */
+    private void recompute() {
+        synchronized (recomputeLock) {
+            long started = System.nanoTime();
+            synchronized (this) {
+                buffered = new ArrayList<>();
+            }
+            Map<Long, Member> freshMembers = new HashMap<>();
+            Map<String, Rollup> fresh = new TreeMap<>();
+            try {
+                studentJdbcRepository.streamAll(List.of("id", "department", "year", "cgpa"), rs -> {
+                    Member member = new Member(rs.getString(2), rs.getObject(3, Integer.class),
+                            rs.getObject(4, Double.class));
+                    freshMembers.put(rs.getLong(1), member);
+                    fresh.computeIfAbsent(member.key(), k -> new Rollup()).add(member);
+                });
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    buffered = null;
+                }
+                throw e;
+            }
+            swap(freshMembers, fresh, started);
+        }
+    }
+
+    private synchronized void swap(Map<Long, Member> freshMembers, Map<String, Rollup> fresh, long started) {
+        for (StudentChangedEvent event : buffered) {
+            apply(freshMembers, fresh, event);
+        }
+        int replayed = buffered.size();
+        buffered = null;
+        if (ready) {
+            int drifted = 0;
+            for (String name : union(departments.keySet(), fresh.keySet())) {
+                if (!Rollup.agree(departments.get(name), fresh.get(name))) {
+                    drifted++;
+                    log.warn("Student statistics drift in department {}: incremental {} vs recomputed {}", name,
+                            describe(departments.get(name), name), describe(fresh.get(name), name));
+                }
+            }
+            driftCounter.increment(drifted);
+        }
+        members = freshMembers;
+        departments = fresh;
+        ready = true;
+        log.info("Student statistics recomputed: {} students in {} departments in {} ms ({} changes replayed)",
+                members.size(), departments.size(), (System.nanoTime() - started) / 1_000_000, replayed);
+    }
+
+    private static void apply(Map<Long, Member> members, Map<String, Rollup> departments,
+            StudentChangedEvent event) {
+        Member previous = members.remove(event.studentId());
+        if (previous != null) {
+            detach(departments, previous);
+        }
+        if (event.type() != StudentChangedEvent.ChangeType.DELETE) {
+            Member member = Member.of(event.after());
+            members.put(event.studentId(), member);
+            departments.computeIfAbsent(member.key(), k -> new Rollup()).add(member);
+        }
+    }
+
+    private static void detach(Map<String, Rollup> departments, Member member) {
+        Rollup rollup = departments.get(member.key());
+        if (rollup != null) {
+            rollup.remove(member);
+            if (rollup.count == 0) {
+                departments.remove(member.key());
+            }
+        }
+    }
+
+    private static List<String> union(Iterable<String> a, Iterable<String> b) {
+        TreeMap<String, Boolean> names = new TreeMap<>();
+        a.forEach(name -> names.put(name, true));
+        b.forEach(name -> names.put(name, true));
+        return new ArrayList<>(names.keySet());
+    }
+
+    private static Object describe(Rollup rollup, String name) {
+        return rollup == null ? "none" : rollup.toView(name);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    private record Member(String department, Integer year, Double cgpa) {
+
+        static Member of(StudentDto dto) {
+            return new Member(dto.department(), dto.year(), dto.cgpa());
+        }
+
+        String key() {
+            return department == null || department.isBlank() ? UNASSIGNED : department;
+        }
+    }
+
+    private static final class Rollup {
+        private long count;
+        private double cgpaSum;
+        private final TreeMap<Double, Integer> cgpas = new TreeMap<>();
+        private final TreeMap<Integer, Long> years = new TreeMap<>();
+        private long cgpaCount;
+
+        void add(Member member) {
+            count++;
+            if (member.cgpa() != null) {
+                cgpaCount++;
+                cgpaSum += member.cgpa();
+                cgpas.merge(member.cgpa(), 1, Integer::sum);
+            }
+            if (member.year() != null) {
+                years.merge(member.year(), 1L, Long::sum);
+            }
+        }
+
+        void remove(Member member) {
+            count--;
+            if (member.cgpa() != null) {
+                cgpaCount--;
+                cgpaSum -= member.cgpa();
+                cgpas.computeIfPresent(member.cgpa(), (k, n) -> n == 1 ? null : n - 1);
+            }
+            if (member.year() != null) {
+                years.computeIfPresent(member.year(), (k, n) -> n == 1 ? null : n - 1);
+            }
+        }
+
+        DepartmentStatistics toView(String name) {
+            Double average = cgpaCount == 0 ? null : cgpaSum / cgpaCount;
+            return new DepartmentStatistics(name, count, average,
+                    cgpas.isEmpty() ? null : cgpas.firstKey(),
+                    cgpas.isEmpty() ? null : cgpas.lastKey(),
+                    Collections.unmodifiableMap(new TreeMap<>(years)));
+        }
+
+        static boolean agree(Rollup a, Rollup b) {
+            if (a == null || b == null) {
+                return a == b;
+            }
+            return a.count == b.count
+                    && a.cgpaCount == b.cgpaCount
+                    && Math.abs(a.cgpaSum - b.cgpaSum) <= SUM_TOLERANCE * Math.max(1, Math.abs(b.cgpaSum))
+                    && Objects.equals(a.cgpas, b.cgpas)
+                    && Objects.equals(a.years, b.years);
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package com.auditready.studentsystem.audit;
+
+import com.auditready.studentsystem.dto.AuditArchiveReport;
+import com.auditready.studentsystem.dto.AuditLogFilter;
+import com.auditready.studentsystem.dto.AuditLogView;
+import com.auditready.studentsystem.entity.AuditLog;
+import com.auditready.studentsystem.entity.AuditSegment;
+import com.auditready.studentsystem.repository.AuditLogRepository;
+import com.auditready.studentsystem.repository.AuditSegmentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Cold tier for {@code audit_logs}. Sealed hash chain segments whose newest row is older
+ * than the retention period are moved, oldest first, into {@link AuditSegmentFile}s and
+ * deleted from the table, which keeps the large TEXT columns out of the buffer pool.
+ * Archived segments always form a prefix of the id space, so hot rows are never older
+ * (by id) than archived ones.
+ * <p>
+ * Readers see one history: {@link #entityHistory} merges an entity's archived and hot
+ * rows, and {@link #mergeArchived} adds archived rows to a page of the audit log API.
+ */
+@Slf4j
+@Component
+public class AuditArchive {
+
+    private static final int OPEN_FILES = 256;
+    private static final Comparator<AuditLogView> OLDEST_FIRST = Comparator.comparing(AuditLogView::changedAt)
+            .thenComparing(AuditLogView::id);
+
+    private final AuditHashChain hashChain;
+    private final AuditSegmentRepository segmentRepository;
+    private final AuditLogRepository auditLogRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Path directory;
+    private final Duration retention;
+    private final int blockRows;
+    private final long intervalMs;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "audit-archiver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Archived segments ordered by newest row first, replaced after every archive run
+    private volatile List<AuditSegment> archived = List.of();
+
+    // Memory-mapped segment files by segment id, least recently used evicted first
+    private final Map<Long, AuditSegmentFile> openFiles = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, AuditSegmentFile> eldest) {
+            return size() > OPEN_FILES;
+        }
+    };
+
+    public AuditArchive(AuditHashChain hashChain, AuditSegmentRepository segmentRepository,
+            AuditLogRepository auditLogRepository, JdbcTemplate jdbcTemplate, DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            @Value("${audit.archive.directory:data/audit-archive}") String directory,
+            @Value("${audit.archive.retention-days:180}") long retentionDays,
+            @Value("${audit.archive.block-rows:256}") int blockRows,
+            @Value("${audit.archive.interval-ms:86400000}") long intervalMs) {
+        this.hashChain = hashChain;
+        this.segmentRepository = segmentRepository;
+        this.auditLogRepository = auditLogRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        // Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of buffering the result set
+        this.streamingTemplate = new JdbcTemplate(dataSource);
+        this.streamingTemplate.setFetchSize(Integer.MIN_VALUE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.directory = Paths.get(directory);
+        this.retention = Duration.ofDays(retentionDays);
+        this.blockRows = blockRows;
+        this.intervalMs = intervalMs;
+    }
+
+    @PostConstruct
+    void start() {
+        refresh();
+        scheduler.scheduleWithFixedDelay(this::archiveQuietly, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Archives every sealed segment older than the retention period, oldest first. Each
+     * segment's chain hashes and Merkle root are checked while its file is written; a
+     * segment that fails stays in the table and stops the run.
+     */
+    public synchronized AuditArchiveReport archive() {
+        long started = System.nanoTime();
+        hashChain.sealSegments();
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        int segments = 0;
+        long rows = 0;
+        long bytes = 0;
+        Long blocked = null;
+        for (AuditSegment segment : segmentRepository.findAllByOrderByFirstLogIdAsc()) {
+            if (segment.getArchiveFile() != null) {
+                continue;
+            }
+            if (!segment.getLastChangedAt().isBefore(cutoff)) {
+                break;
+            }
+            // Holding the chain lock keeps a reseal from rewriting rows while they are copied
+            Long fileBytes = hashChain.whileLocked(() -> archiveSegment(segment));
+            if (fileBytes == null) {
+                blocked = segment.getId();
+                break;
+            }
+            segments++;
+            rows += segment.getRowCount();
+            bytes += fileBytes;
+        }
+        refresh();
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        if (segments > 0) {
+            log.info("Archived {} audit segments ({} rows, {} bytes) in {} ms", segments, rows, bytes, elapsedMs);
+        }
+        return new AuditArchiveReport(segments, rows, bytes, blocked, elapsedMs);
+    }
+
+    /**
+     * All audit rows of one entity, archived and hot, ordered by {@code (changedAt, id)}
+     * ascending.
+     */
+    public List<AuditLog> entityHistory(String entityName, Long entityId) {
+        List<AuditLog> history = new ArrayList<>();
+        for (Long segmentId : jdbcTemplate.queryForList("SELECT segment_id FROM audit_archive_locators "
+                + "WHERE entity_name = ? AND entity_id = ? ORDER BY segment_id", Long.class, entityName, entityId)) {
+            forEachRow(segment(segmentId), row -> {
+                if (entityName.equals(row.record().entityName()) && entityId.equals(row.record().entityId())) {
+                    history.add(toAuditLog(row));
+                }
+            });
+        }
+        List<AuditLog> hot = new ArrayList<>(
+                auditLogRepository.findByEntityNameAndEntityIdOrderByChangedAtDescIdDesc(entityName, entityId));
+        Collections.reverse(hot);
+        if (history.isEmpty()) {
+            return hot;
+        }
+        history.addAll(hot);
+        history.sort(Comparator.comparing(AuditLog::getChangedAt).thenComparing(AuditLog::getId));
+        return history;
+    }
+
+    public boolean contains(String entityName, Long entityId) {
+        return !jdbcTemplate.queryForList("SELECT 1 FROM audit_archive_locators WHERE entity_name = ? "
+                + "AND entity_id = ? LIMIT 1", Integer.class, entityName, entityId).isEmpty();
+    }
+
+    // May include entities whose archived rows all fall after asOf; callers replay and discard those
+    public List<Long> entityIdsChangedUpTo(String entityName, LocalDateTime asOf) {
+        return jdbcTemplate.queryForList("SELECT DISTINCT l.entity_id FROM audit_archive_locators l "
+                + "JOIN audit_segments s ON s.id = l.segment_id WHERE l.entity_name = ? AND s.first_changed_at <= ?",
+                Long.class, entityName, asOf);
+    }
+
+    /**
+     * Merges archived rows matching the filter into a newest-first page of hot rows and
+     * returns the newest {@code limit} of both. Segments (and blocks) that cannot hold a
+     * row newer than the current page are skipped, so pages of recent activity never read
+     * the archive.
+     */
+    public List<AuditLogView> mergeArchived(List<AuditLogView> hot, AuditLogFilter filter,
+            LocalDateTime cursorChangedAt, Long cursorId, int limit, boolean includeValues) {
+        List<AuditSegment> candidates = archived;
+        if (candidates.isEmpty()) {
+            return hot;
+        }
+        Set<Long> entitySegments = null;
+        if (StringUtils.hasText(filter.entityName()) && filter.entityId() != null) {
+            entitySegments = new LinkedHashSet<>(jdbcTemplate.queryForList("SELECT segment_id FROM "
+                    + "audit_archive_locators WHERE entity_name = ? AND entity_id = ?", Long.class,
+                    filter.entityName(), filter.entityId()));
+        }
+
+        // Min-heap of the newest rows seen so far
+        PriorityQueue<AuditLogView> page = new PriorityQueue<>(limit + 1, OLDEST_FIRST);
+        for (AuditLogView row : hot) {
+            offer(page, row, limit);
+        }
+        for (AuditSegment segment : candidates) {
+            if (page.size() >= limit && segment.getLastChangedAt().isBefore(page.peek().changedAt())) {
+                break;
+            }
+            if ((entitySegments != null && !entitySegments.contains(segment.getId()))
+                    || (filter.from() != null && segment.getLastChangedAt().isBefore(filter.from()))
+                    || (filter.to() != null && !segment.getFirstChangedAt().isBefore(filter.to()))
+                    || (cursorChangedAt != null && segment.getFirstChangedAt().isAfter(cursorChangedAt))) {
+                continue;
+            }
+            AuditSegmentFile file = file(segment);
+            file.forEach(block -> !(page.size() >= limit && block.maxChangedAt().isBefore(page.peek().changedAt()))
+                    && !(cursorChangedAt != null && block.minChangedAt().isAfter(cursorChangedAt)), row -> {
+                        AuditRecord record = row.record();
+                        if (matches(record, row.id(), filter, cursorChangedAt, cursorId)) {
+                            offer(page, new AuditLogView(row.id(), record.action(), record.entityName(),
+                                    record.entityId(), record.changedBy(), record.changedAt(), record.diff(),
+                                    includeValues ? record.oldValues() : null,
+                                    includeValues ? record.newValues() : null), limit);
+                        }
+                    });
+        }
+        List<AuditLogView> merged = new ArrayList<>(page);
+        merged.sort(OLDEST_FIRST.reversed());
+        return merged;
+    }
+
+    /**
+     * Passes every archived row of the segment, in id order, to the consumer.
+     */
+    void forEachRow(AuditSegment segment, Consumer<AuditHashChain.StoredRow> consumer) {
+        file(segment).forEach(block -> true, consumer);
+    }
+
+    // Returns the file size, or null when the rows do not match the sealed segment
+    private Long archiveSegment(AuditSegment segment) {
+        String fileName = String.format("segment-%019d-%019d.aseg", segment.getFirstLogId(), segment.getLastLogId());
+        Path target = directory.resolve(fileName);
+        MessageDigest digest = AuditHashChain.sha256();
+        List<String> hashes = new ArrayList<>(segment.getRowCount());
+        Map<String, Object[]> locators = new HashMap<>();
+        boolean[] intact = { true };
+        String[] previous = { segment.getPrevHash() };
+        long fileBytes;
+        try (AuditSegmentFile.Writer writer = AuditSegmentFile.create(target, blockRows)) {
+            streamingTemplate.query("SELECT " + AuditHashChain.ROW_COLUMNS
+                    + " FROM audit_logs WHERE id BETWEEN ? AND ? ORDER BY id", rs -> {
+                        AuditHashChain.StoredRow row = AuditHashChain.mapRow(rs);
+                        String expected = AuditHashChain.hash(digest, previous[0], row.record());
+                        if (!expected.equals(row.rowHash())) {
+                            intact[0] = false;
+                        }
+                        previous[0] = row.rowHash() == null ? expected : row.rowHash();
+                        hashes.add(previous[0]);
+                        AuditRecord record = row.record();
+                        if (record.entityId() != null) {
+                            locators.putIfAbsent(record.entityName() + ":" + record.entityId(),
+                                    new Object[] { segment.getId(), record.entityName(), record.entityId() });
+                        }
+                        writer.append(row);
+                    }, segment.getFirstLogId(), segment.getLastLogId());
+
+            if (!intact[0] || hashes.size() != segment.getRowCount()
+                    || !Objects.equals(previous[0], segment.getEndHash())
+                    || !AuditHashChain.merkleRoot(hashes).equals(segment.getMerkleRoot())) {
+                log.error("Audit segment {} (ids {}-{}) does not match its seal; not archived", segment.getId(),
+                        segment.getFirstLogId(), segment.getLastLogId());
+                return null;
+            }
+            fileBytes = writer.commit();
+        }
+
+        // The file is durable before the rows leave the table
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate("INSERT INTO audit_archive_locators (segment_id, entity_name, entity_id) "
+                    + "VALUES (?, ?, ?)", new ArrayList<>(locators.values()));
+            jdbcTemplate.update("UPDATE audit_segments SET archive_file = ?, archived_at = ? WHERE id = ?", fileName,
+                    LocalDateTime.now(), segment.getId());
+            jdbcTemplate.update("DELETE FROM audit_logs WHERE id BETWEEN ? AND ?", segment.getFirstLogId(),
+                    segment.getLastLogId());
+        });
+        return fileBytes;
+    }
+
+    private void refresh() {
+        List<AuditSegment> segments = new ArrayList<>(segmentRepository.findByArchiveFileIsNotNullOrderByFirstLogIdAsc());
+        segments.sort(Comparator.comparing(AuditSegment::getLastChangedAt).reversed());
+        archived = List.copyOf(segments);
+    }
+
+    private AuditSegment segment(Long segmentId) {
+        for (AuditSegment segment : archived) {
+            if (segment.getId().equals(segmentId)) {
+                return segment;
+            }
+        }
+        return segmentRepository.findById(segmentId)
+                .orElseThrow(() -> new IllegalStateException("Unknown audit segment " + segmentId));
+    }
+
+    private AuditSegmentFile file(AuditSegment segment) {
+        synchronized (openFiles) {
+            return openFiles.computeIfAbsent(segment.getId(),
+                    id -> AuditSegmentFile.open(directory.resolve(segment.getArchiveFile())));
+        }
+    }
+
+    private static boolean matches(AuditRecord record, long id, AuditLogFilter filter, LocalDateTime cursorChangedAt,
+            Long cursorId) {
+        return (!StringUtils.hasText(filter.entityName()) || filter.entityName().equals(record.entityName()))
+                && (filter.entityId() == null || filter.entityId().equals(record.entityId()))
+                && (!StringUtils.hasText(filter.action()) || filter.action().equals(record.action()))
+                && (!StringUtils.hasText(filter.changedBy()) || filter.changedBy().equals(record.changedBy()))
+                && (filter.from() == null || !record.changedAt().isBefore(filter.from()))
+                && (filter.to() == null || record.changedAt().isBefore(filter.to()))
+                && (cursorChangedAt == null || cursorId == null || record.changedAt().isBefore(cursorChangedAt)
+                        || (record.changedAt().equals(cursorChangedAt) && id < cursorId));
+    }
+
+    private static void offer(PriorityQueue<AuditLogView> page, AuditLogView row, int limit) {
+        if (page.size() < limit) {
+            page.add(row);
+        } else if (OLDEST_FIRST.compare(row, page.peek()) > 0) {
+            page.poll();
+            page.add(row);
+        }
+    }
+
+    private static AuditLog toAuditLog(AuditHashChain.StoredRow row) {
+        AuditRecord record = row.record();
+        return AuditLog.builder()
+                .id(row.id())
+                .action(record.action())
+                .entityName(record.entityName())
+                .entityId(record.entityId())
+                .changedBy(record.changedBy())
+                .changedAt(record.changedAt())
+                .oldValues(record.oldValues())
+                .newValues(record.newValues())
+                .diff(record.diff())
+                .payloadType(record.payloadType())
+                .compressed(record.compressed())
+                .rowHash(row.rowHash())
+                .build();
+    }
+
+    private void archiveQuietly() {
+        try {
+            archive();
+        } catch (RuntimeException e) {
+            log.error("Audit archiving failed", e);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,346 @@
+package com.auditready.studentsystem.audit;
+
+import com.auditready.studentsystem.dto.AuditLogView;
+import com.auditready.studentsystem.exception.TooManyRequestsException;
+import com.auditready.studentsystem.repository.AuditLogRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes audit entries to live dashboards over Server-Sent Events. The audit writer
+ * publishes each persisted batch once; the feed fans it out to every matching subscriber
+ * from memory, so the number of clients never adds database load.
+ * <p>
+ * Every subscriber has a bounded outbox drained by a small dispatcher pool, so a slow
+ * connection never blocks the writer or other clients. A subscriber whose outbox overflows
+ * is disconnected and resumes from its last event id on reconnect: first from a ring of
+ * recent entries, then with one query if it fell further behind.
+ */
+@Slf4j
+@Component
+public class AuditFeed {
+
+    static final String EVENT_AUDIT = "audit";
+    // Tells the client it missed more than can be replayed and should reload the list
+    static final String EVENT_RESET = "reset";
+
+    private final AuditLogRepository auditLogRepository;
+    private final int bufferSize;
+    private final int outboxCapacity;
+    private final int maxSubscribers;
+    private final long timeoutMs;
+    private final long heartbeatMs;
+    private final ArrayDeque<AuditLogView> recent;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService dispatcher;
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "audit-feed-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Counter overflowCounter;
+
+    public AuditFeed(AuditLogRepository auditLogRepository, MeterRegistry meterRegistry,
+            @Value("${audit.feed.buffer-size:1000}") int bufferSize,
+            @Value("${audit.feed.outbox-capacity:500}") int outboxCapacity,
+            @Value("${audit.feed.max-subscribers:200}") int maxSubscribers,
+            @Value("${audit.feed.dispatcher-threads:4}") int dispatcherThreads,
+            @Value("${audit.feed.timeout-ms:1800000}") long timeoutMs,
+            @Value("${audit.feed.heartbeat-ms:15000}") long heartbeatMs) {
+        this.auditLogRepository = auditLogRepository;
+        this.bufferSize = bufferSize;
+        this.outboxCapacity = outboxCapacity;
+        this.maxSubscribers = maxSubscribers;
+        this.timeoutMs = timeoutMs;
+        this.heartbeatMs = heartbeatMs;
+        this.recent = new ArrayDeque<>(bufferSize);
+        AtomicInteger counter = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(dispatcherThreads, r -> {
+            Thread thread = new Thread(r, "audit-feed-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("audit.feed.subscribers", subscribers, Set::size).register(meterRegistry);
+        this.overflowCounter = Counter.builder("audit.feed.overflow")
+                .description("Subscribers disconnected because they could not keep up")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        heartbeat.scheduleWithFixedDelay(this::sendHeartbeats, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Opens a stream of entries matching the optional filters. With {@code lastEventId} the
+     * stream first replays everything committed after that entry.
+     */
+    public SseEmitter subscribe(String entityName, String action, Long lastEventId) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new TooManyRequestsException("Too many live audit subscribers", heartbeatMs);
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, entityName, action);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+
+        // Entries older than the buffer are read before taking the lock; the lock then
+        // covers the buffered tail and registration, so nothing is missed or sent twice
+        List<AuditLogView> older = null;
+        if (lastEventId != null && !isBuffered(lastEventId)) {
+            older = auditLogRepository.findSummariesAfter(lastEventId, PageRequest.of(0, bufferSize + 1));
+        }
+        synchronized (recent) {
+            if (lastEventId != null && !replay(subscriber, lastEventId, older)) {
+                subscriber.outbox.add(Outgoing.reset());
+            }
+            subscribers.add(subscriber);
+        }
+        schedule(subscriber);
+        return emitter;
+    }
+
+    /**
+     * Called by the writer with each batch once it is persisted.
+     */
+    public void publish(List<AuditLogView> views) {
+        if (views.isEmpty()) {
+            return;
+        }
+        List<Subscriber> ready = new ArrayList<>();
+        synchronized (recent) {
+            for (AuditLogView view : views) {
+                if (recent.size() == bufferSize) {
+                    recent.pollFirst();
+                }
+                recent.addLast(view);
+            }
+            for (Subscriber subscriber : subscribers) {
+                boolean offered = false;
+                for (AuditLogView view : views) {
+                    if (!subscriber.matches(view)) {
+                        continue;
+                    }
+                    if (!subscriber.offer(view)) {
+                        // Scheduled below so the dispatcher closes the stream
+                        overflow(subscriber);
+                        offered = true;
+                        break;
+                    }
+                    offered = true;
+                }
+                if (offered) {
+                    ready.add(subscriber);
+                }
+            }
+        }
+        ready.forEach(this::schedule);
+    }
+
+    // Caller holds the buffer lock; returns false if the gap is too large to replay
+    private boolean replay(Subscriber subscriber, Long lastEventId, List<AuditLogView> older) {
+        if (older == null) {
+            boolean found = false;
+            for (AuditLogView view : recent) {
+                if (found) {
+                    subscriber.offerReplay(view);
+                } else if (lastEventId.equals(view.id())) {
+                    found = true;
+                }
+            }
+            // Evicted between the buffer check and taking the lock
+            return found;
+        }
+        if (older.size() > bufferSize) {
+            return false;
+        }
+        long after = lastEventId;
+        for (AuditLogView view : older) {
+            subscriber.offerReplay(view);
+            after = Math.max(after, view.id());
+        }
+        for (AuditLogView view : recent) {
+            if (view.id() > after) {
+                subscriber.offerReplay(view);
+            }
+        }
+        return true;
+    }
+
+    private boolean isBuffered(long id) {
+        synchronized (recent) {
+            for (Iterator<AuditLogView> it = recent.descendingIterator(); it.hasNext();) {
+                if (it.next().id() == id) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private void overflow(Subscriber subscriber) {
+        overflowCounter.increment();
+        subscribers.remove(subscriber);
+        synchronized (subscriber.outbox) {
+            subscriber.outbox.clear();
+            subscriber.closing = true;
+        }
+        log.info("Disconnecting slow audit feed subscriber");
+    }
+
+    private void sendHeartbeats() {
+        for (Subscriber subscriber : subscribers) {
+            synchronized (subscriber.outbox) {
+                if (!subscriber.outbox.isEmpty()) {
+                    continue;
+                }
+                subscriber.outbox.add(Outgoing.heartbeat());
+            }
+            schedule(subscriber);
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(() -> drain(subscriber));
+            } catch (RuntimeException e) {
+                subscriber.scheduled.set(false);
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            while (true) {
+                Outgoing next;
+                boolean closing;
+                synchronized (subscriber.outbox) {
+                    next = subscriber.outbox.poll();
+                    closing = subscriber.closing;
+                }
+                if (next == null) {
+                    if (closing) {
+                        subscriber.closed = true;
+                        subscriber.emitter.complete();
+                    }
+                    return;
+                }
+                subscriber.emitter.send(next.toEvent());
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the servlet container reports the rest
+            subscriber.closed = true;
+            subscribers.remove(subscriber);
+        } finally {
+            subscriber.scheduled.set(false);
+            boolean pending;
+            synchronized (subscriber.outbox) {
+                // Work that arrived after the last poll, including an overflow close
+                pending = !subscriber.closed && (!subscriber.outbox.isEmpty() || subscriber.closing);
+            }
+            if (pending) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        heartbeat.shutdownNow();
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final String entityName;
+        private final String action;
+        private final ArrayDeque<Outgoing> outbox = new ArrayDeque<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private boolean closing;
+        private volatile boolean closed;
+
+        private Subscriber(SseEmitter emitter, String entityName, String action) {
+            this.emitter = emitter;
+            this.entityName = entityName;
+            this.action = action;
+        }
+
+        private boolean matches(AuditLogView view) {
+            return (entityName == null || entityName.equalsIgnoreCase(view.entityName()))
+                    && (action == null || action.equalsIgnoreCase(view.action()));
+        }
+
+        // Replay is bounded by the buffer size, so it bypasses the outbox limit
+        private void offerReplay(AuditLogView view) {
+            if (matches(view)) {
+                synchronized (outbox) {
+                    outbox.add(Outgoing.of(view));
+                }
+            }
+        }
+
+        private boolean offer(AuditLogView view) {
+            synchronized (outbox) {
+                if (outbox.size() >= outboxCapacity) {
+                    return false;
+                }
+                outbox.add(Outgoing.of(view));
+                return true;
+            }
+        }
+    }
+
+    private record Outgoing(String name, AuditLogView view) {
+
+        static Outgoing of(AuditLogView view) {
+            return new Outgoing(EVENT_AUDIT, view);
+        }
+
+        static Outgoing reset() {
+            return new Outgoing(EVENT_RESET, null);
+        }
+
+        static Outgoing heartbeat() {
+            return new Outgoing(null, null);
+        }
+
+        SseEmitter.SseEventBuilder toEvent() {
+            if (name == null) {
+                return SseEmitter.event().comment("keep-alive");
+            }
+            if (view == null) {
+                return SseEmitter.event().name(name).data("{}", MediaType.APPLICATION_JSON);
+            }
+            return SseEmitter.event()
+                    .id(String.valueOf(view.id()))
+                    .name(name)
+                    .data(view, MediaType.APPLICATION_JSON);
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.auditready.studentsystem.audit;
+
+import com.auditready.studentsystem.dto.FieldChangeBackfillReport;
+import com.auditready.studentsystem.entity.AuditLog;
+import com.auditready.studentsystem.entity.Student;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains {@code audit_field_changes}, one row per changed field of every UPDATE audit
+ * row. {@link AuditLogWriter} adds the rows in the same transaction as their audit rows;
+ * {@link #backfill()} indexes audit rows written before the table existed. Scalar values
+ * are stored as plain text, anything structured as JSON.
+ */
+@Slf4j
+@Component
+public class AuditFieldChangeIndex {
+
+    private static final String INSERT_SQL = "INSERT INTO audit_field_changes "
+            + "(audit_log_id, entity_name, entity_id, entity_scope, field_name, old_value, new_value, changed_by, "
+            + "changed_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UNINDEXED_SQL = "SELECT a.id, a.entity_name, a.entity_id, a.changed_by, "
+            + "a.changed_at, a.diff FROM audit_logs a WHERE a.id > ? AND a.action = 'UPDATE' AND NOT EXISTS "
+            + "(SELECT 1 FROM audit_field_changes f WHERE f.audit_log_id = a.id) ORDER BY a.id LIMIT ?";
+    private static final int SCOPE_LENGTH = 100;
+    // Entity property whose value after the change becomes the scope of its field changes
+    private static final Map<String, String> SCOPE_FIELDS = Map.of("STUDENT", "department");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditArchive archive;
+    private final AuditHistoryReconstructor reconstructor;
+    private final TransactionTemplate transactionTemplate;
+    private final int backfillBatchSize;
+
+    public AuditFieldChangeIndex(JdbcTemplate jdbcTemplate, AuditArchive archive,
+            AuditHistoryReconstructor reconstructor, PlatformTransactionManager transactionManager,
+            @Value("${audit.field-changes.backfill-batch-size:1000}") int backfillBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.archive = archive;
+        this.reconstructor = reconstructor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backfillBatchSize = backfillBatchSize;
+    }
+
+    /**
+     * Scope recorded with an entity's field changes, so questions such as "CGPA changes in
+     * one department" use an index even when the department itself did not change.
+     */
+    public static String scopeOf(Object entity) {
+        return entity instanceof Student student ? truncate(student.getDepartment()) : null;
+    }
+
+    /**
+     * Field change rows for one persisted audit row; empty unless it is an UPDATE with a
+     * readable diff.
+     */
+    List<Row> rowsFor(long auditLogId, AuditRecord record) {
+        if (!"UPDATE".equals(record.action())) {
+            return List.of();
+        }
+        return rowsFor(auditLogId, record.entityName(), record.entityId(), record.scope(), record.changedBy(),
+                record.changedAt(), record.diff());
+    }
+
+    /**
+     * Inserts the rows on the caller's connection, so they commit with the audit rows.
+     */
+    void insert(Connection connection, List<Row> rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL)) {
+            for (Row row : rows) {
+                ps.setLong(1, row.auditLogId());
+                ps.setString(2, row.entityName());
+                ps.setObject(3, row.entityId());
+                ps.setString(4, row.scope());
+                ps.setString(5, row.field());
+                ps.setString(6, row.oldValue());
+                ps.setString(7, row.newValue());
+                ps.setString(8, row.changedBy());
+                ps.setTimestamp(9, Timestamp.valueOf(row.changedAt()));
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    /**
+     * Indexes every UPDATE audit row that has no field changes yet, in id order and one
+     * transaction per batch. Safe to rerun; rows written concurrently by the audit writer
+     * are already indexed and skipped.
+     */
+    public synchronized FieldChangeBackfillReport backfill() {
+        long started = System.nanoTime();
+        long scanned = 0;
+        long written = 0;
+        long unparseable = 0;
+        long afterId = 0;
+        while (true) {
+            List<Pending> batch = jdbcTemplate.query(UNINDEXED_SQL, (rs, i) -> new Pending(rs.getLong(1),
+                    rs.getString(2), rs.getObject(3, Long.class), rs.getString(4),
+                    rs.getTimestamp(5).toLocalDateTime(), rs.getString(6)), afterId, backfillBatchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            afterId = batch.get(batch.size() - 1).id();
+            Map<Long, String> scopes = scopesFor(batch);
+            List<Row> rows = new ArrayList<>();
+            for (Pending pending : batch) {
+                List<Row> changes = rowsFor(pending.id(), pending.entityName(), pending.entityId(),
+                        scopes.get(pending.id()), pending.changedBy(), pending.changedAt(), pending.diff());
+                if (changes.isEmpty()) {
+                    unparseable++;
+                }
+                rows.addAll(changes);
+            }
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.execute(
+                    (ConnectionCallback<Void>) connection -> {
+                        insert(connection, rows);
+                        return null;
+                    }));
+            scanned += batch.size();
+            written += rows.size();
+        }
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        log.info("Audit field change backfill indexed {} audit rows into {} field changes ({} unreadable) in {} ms",
+                scanned, written, unparseable, elapsedMs);
+        return new FieldChangeBackfillReport(scanned, written, unparseable, elapsedMs);
+    }
+
+    private List<Row> rowsFor(long auditLogId, String entityName, Long entityId, String scope, String changedBy,
+            LocalDateTime changedAt, String diff) {
+        List<Map<String, JsonNode>> changes = reconstructor.parseChanges(diff);
+        List<Row> rows = new ArrayList<>(changes.size());
+        for (Map<String, JsonNode> change : changes) {
+            JsonNode field = change.get("field");
+            if (field == null || field.isNull()) {
+                continue;
+            }
+            rows.add(new Row(auditLogId, entityName, entityId, scope, field.asText(), text(change.get("old")),
+                    text(change.get("new")), changedBy, changedAt));
+        }
+        return rows;
+    }
+
+    // Delta rows only hold the changed fields, so the scope comes from each entity's rebuilt history
+    private Map<Long, String> scopesFor(List<Pending> batch) {
+        Set<Long> ids = new LinkedHashSet<>();
+        Map<String, Long> entities = new HashMap<>();
+        for (Pending pending : batch) {
+            if (SCOPE_FIELDS.containsKey(pending.entityName()) && pending.entityId() != null) {
+                ids.add(pending.id());
+                entities.put(pending.entityName() + ":" + pending.entityId(), pending.entityId());
+            }
+        }
+        Map<Long, String> scopes = new HashMap<>();
+        entities.forEach((key, entityId) -> {
+            String entityName = key.substring(0, key.lastIndexOf(':'));
+            String scopeField = SCOPE_FIELDS.get(entityName);
+            for (AuditLog entry : reconstructor.reconstruct(archive.entityHistory(entityName, entityId))) {
+                if (ids.contains(entry.getId())) {
+                    ObjectNode state = reconstructor.parse(entry.getNewValues());
+                    JsonNode value = state == null ? null : state.get(scopeField);
+                    scopes.put(entry.getId(), value == null || value.isNull() ? null : truncate(value.asText()));
+                }
+            }
+        });
+        return scopes;
+    }
+
+    private static String text(JsonNode value) {
+        if (value == null || value.isNull()) {
+            return null;
+        }
+        return value.isValueNode() ? value.asText() : value.toString();
+    }
+
+    private static String truncate(String value) {
+        return value == null || value.length() <= SCOPE_LENGTH ? value : value.substring(0, SCOPE_LENGTH);
+    }
+
+    record Row(long auditLogId, String entityName, Long entityId, String scope, String field, String oldValue,
+            String newValue, String changedBy, LocalDateTime changedAt) {
+    }
+
+    private record Pending(long id, String entityName, Long entityId, String changedBy, LocalDateTime changedAt,
+            String diff) {
+    }
+}
@@ -0,0 +1,345 @@
+package com.auditready.studentsystem.audit;
+
+import com.auditready.studentsystem.entity.AuditSegment;
+import com.auditready.studentsystem.repository.AuditSegmentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Makes {@code audit_logs} tamper-evident. Every row stores
+ * {@code SHA-256(previous row hash || row content)} in id order, so editing, inserting or
+ * deleting a row breaks the chain from that row on. Periodically the rows written since
+ * the last seal are closed into an {@link AuditSegment} carrying the Merkle root of their
+ * hashes, which lets {@link AuditIntegrityVerifier} check segments independently and in
+ * parallel.
+ * <p>
+ * All writes to the chain (appends, reseals, seals) hold one lock, so ids are assigned in
+ * chain order and a segment never covers an uncommitted row.
+ */
+@Slf4j
+@Component
+public class AuditHashChain {
+
+    public static final String GENESIS = "0".repeat(64);
+
+    static final String ROW_COLUMNS = "id, action, entity_name, entity_id, changed_by, changed_at, old_values, "
+            + "new_values, diff, payload_type, compressed, row_hash";
+
+    private static final HexFormat HEX = HexFormat.of();
+    private static final byte MERKLE_NODE = 1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditSegmentRepository segmentRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxSegmentRows;
+    private final long segmentWindowMs;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "audit-sealer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Hash of the newest committed row; guarded by lock
+    private String head = GENESIS;
+
+    public AuditHashChain(JdbcTemplate jdbcTemplate, AuditSegmentRepository segmentRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${audit.integrity.batch-size:1000}") int batchSize,
+            @Value("${audit.integrity.max-segment-rows:50000}") int maxSegmentRows,
+            @Value("${audit.integrity.segment-window-ms:3600000}") long segmentWindowMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.segmentRepository = segmentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxSegmentRows = maxSegmentRows;
+        this.segmentWindowMs = segmentWindowMs;
+    }
+
+    @PostConstruct
+    void start() {
+        // Rows written before the chain existed are hashed once, in id order. After that a
+        // missing hash is evidence of tampering, reported by the verifier and never repaired here
+        boolean chainExists = segmentRepository.count() > 0 || Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM audit_logs WHERE row_hash IS NOT NULL)", Boolean.class));
+        Long firstUnhashed = jdbcTemplate.queryForObject("SELECT MIN(id) FROM audit_logs WHERE row_hash IS NULL",
+                Long.class);
+        if (!chainExists && firstUnhashed != null) {
+            reseal(firstUnhashed);
+        } else {
+            if (firstUnhashed != null) {
+                log.error("Audit row {} has no chain hash; run an integrity check", firstUnhashed);
+            }
+            head = previousHash(Long.MAX_VALUE);
+        }
+        scheduler.scheduleWithFixedDelay(this::sealQuietly, segmentWindowMs, segmentWindowMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Chains a batch onto the head and hands the hashes, in batch order, to {@code insert},
+     * which must persist the batch in that order and commit before returning. The head
+     * only advances if it does.
+     */
+    public <T> T append(List<AuditRecord> batch, Function<List<String>, T> insert) {
+        lock.lock();
+        try {
+            MessageDigest digest = sha256();
+            List<String> hashes = new ArrayList<>(batch.size());
+            String previous = head;
+            for (AuditRecord record : batch) {
+                previous = hash(digest, previous, record);
+                hashes.add(previous);
+            }
+            T result = insert.apply(hashes);
+            head = previous;
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs {@code action} while no row can be appended, resealed or sealed.
+     */
+    public <T> T whileLocked(Supplier<T> action) {
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Recomputes the hashes of every row from {@code fromId} on and drops the segments
+     * covering them. Only for the initial backfill and explicitly requested rewrites such as
+     * the storage migration; rows before {@code fromId} keep their hashes.
+     *
+     * @return number of rows rehashed
+     */
+    public long reseal(long fromId) {
+        lock.lock();
+        try {
+            int dropped = transactionTemplate.execute(status -> segmentRepository.deleteFrom(fromId));
+            String previous = previousHash(fromId);
+            long afterId = fromId - 1;
+            long rows = 0;
+            MessageDigest digest = sha256();
+            while (true) {
+                List<StoredRow> batch = jdbcTemplate.query("SELECT " + ROW_COLUMNS
+                        + " FROM audit_logs WHERE id > ? ORDER BY id LIMIT ?", (rs, i) -> mapRow(rs), afterId,
+                        batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                List<Object[]> updates = new ArrayList<>(batch.size());
+                for (StoredRow row : batch) {
+                    previous = hash(digest, previous, row.record());
+                    updates.add(new Object[] { previous, row.id() });
+                }
+                transactionTemplate.executeWithoutResult(
+                        status -> jdbcTemplate.batchUpdate("UPDATE audit_logs SET row_hash = ? WHERE id = ?", updates));
+                afterId = batch.get(batch.size() - 1).id();
+                rows += batch.size();
+            }
+            head = previous;
+            log.warn("Audit hash chain resealed from id {}: {} rows rehashed, {} segments dropped", fromId, rows,
+                    dropped);
+            return rows;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Closes every row written since the last segment into new segments of at most
+     * {@code audit.integrity.max-segment-rows} rows.
+     *
+     * @return number of segments created
+     */
+    public int sealSegments() {
+        lock.lock();
+        try {
+            AuditSegment last = segmentRepository.findTopByOrderByLastLogIdDesc().orElse(null);
+            long afterId = last == null ? 0 : last.getLastLogId();
+            String previous = last == null ? GENESIS : last.getEndHash();
+            int sealed = 0;
+            while (true) {
+                List<SealedRow> rows = jdbcTemplate.query(
+                        "SELECT id, changed_at, row_hash FROM audit_logs WHERE id > ? ORDER BY id LIMIT ?",
+                        (rs, i) -> new SealedRow(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime(), rs.getString(3)),
+                        afterId, maxSegmentRows);
+                if (rows.isEmpty()) {
+                    break;
+                }
+                if (rows.stream().anyMatch(row -> row.rowHash() == null)) {
+                    log.error("Audit rows after id {} have no chain hash; sealing stopped", afterId);
+                    break;
+                }
+                List<String> hashes = rows.stream().map(SealedRow::rowHash).toList();
+                SealedRow end = rows.get(rows.size() - 1);
+                // Later segments tile from the previous one; the first starts at the chain's first row
+                long firstLogId = last == null && sealed == 0 ? rows.get(0).id() : afterId + 1;
+                segmentRepository.save(AuditSegment.builder()
+                        .firstLogId(firstLogId)
+                        .lastLogId(end.id())
+                        .rowCount(rows.size())
+                        .firstChangedAt(rows.stream().map(SealedRow::changedAt).min(LocalDateTime::compareTo).get())
+                        .lastChangedAt(rows.stream().map(SealedRow::changedAt).max(LocalDateTime::compareTo).get())
+                        .prevHash(previous)
+                        .endHash(end.rowHash())
+                        .merkleRoot(merkleRoot(hashes))
+                        .sealedAt(LocalDateTime.now())
+                        .build());
+                sealed++;
+                afterId = end.id();
+                previous = end.rowHash();
+                if (rows.size() < maxSegmentRows) {
+                    break;
+                }
+            }
+            if (sealed > 0) {
+                log.info("Sealed {} audit segments up to id {}", sealed, afterId);
+            }
+            return sealed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void sealQuietly() {
+        try {
+            sealSegments();
+        } catch (RuntimeException e) {
+            log.error("Audit segment sealing failed", e);
+        }
+    }
+
+    private String previousHash(long beforeId) {
+        List<String> hashes = jdbcTemplate.queryForList(
+                "SELECT row_hash FROM audit_logs WHERE id < ? AND row_hash IS NOT NULL ORDER BY id DESC LIMIT 1", String.class, beforeId);
+        if (!hashes.isEmpty()) {
+            return hashes.get(0);
+        }
+        // Every earlier row may have been archived; the newest segment before them ends the chain there
+        return segmentRepository.findTopByLastLogIdLessThanOrderByLastLogIdDesc(beforeId)
+                .map(AuditSegment::getEndHash)
+                .orElse(GENESIS);
+    }
+
+    /**
+     * Chain hash of one row. Every field is length-prefixed (or marked null) so no two
+     * different rows share an encoding; {@code changedAt} is hashed at the microsecond
+     * precision the column stores.
+     */
+    static String hash(MessageDigest digest, String previous, AuditRecord record) {
+        digest.update(HEX.parseHex(previous));
+        put(digest, record.action());
+        put(digest, record.entityName());
+        put(digest, record.entityId() == null ? null : record.entityId().toString());
+        put(digest, record.changedBy());
+        put(digest, record.changedAt() == null ? null : storedTime(record.changedAt()).toString());
+        put(digest, record.oldValues());
+        put(digest, record.newValues());
+        put(digest, record.diff());
+        put(digest, record.payloadType());
+        put(digest, record.compressed() == null ? null : record.compressed().toString());
+        return HEX.formatHex(digest.digest());
+    }
+
+    /**
+     * Root of a binary Merkle tree over the given hex hashes; an unpaired node is carried
+     * up a level unchanged.
+     */
+    static String merkleRoot(List<String> hashes) {
+        MessageDigest digest = sha256();
+        List<byte[]> level = new ArrayList<>(hashes.size());
+        for (String hash : hashes) {
+            level.add(HEX.parseHex(hash));
+        }
+        while (level.size() > 1) {
+            List<byte[]> next = new ArrayList<>((level.size() + 1) / 2);
+            for (int i = 0; i + 1 < level.size(); i += 2) {
+                digest.update(MERKLE_NODE);
+                digest.update(level.get(i));
+                digest.update(level.get(i + 1));
+                next.add(digest.digest());
+            }
+            if (level.size() % 2 == 1) {
+                next.add(level.get(level.size() - 1));
+            }
+            level = next;
+        }
+        return level.isEmpty() ? GENESIS : HEX.formatHex(level.get(0));
+    }
+
+    static LocalDateTime storedTime(LocalDateTime changedAt) {
+        return changedAt.truncatedTo(ChronoUnit.MICROS);
+    }
+
+    static StoredRow mapRow(ResultSet rs) throws SQLException {
+        Timestamp changedAt = rs.getTimestamp(6);
+        boolean compressed = rs.getBoolean(11);
+        Boolean compressedValue = rs.wasNull() ? null : compressed;
+        AuditRecord record = new AuditRecord(0, rs.getString(2), rs.getString(3), rs.getObject(4, Long.class),
+                rs.getString(5), changedAt == null ? null : changedAt.toLocalDateTime(), rs.getString(7),
+                rs.getString(8), rs.getString(9), rs.getString(10), compressedValue, null);
+        return new StoredRow(rs.getLong(1), record, rs.getString(12));
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static void put(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update((byte) 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) 1);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+
+    record StoredRow(long id, AuditRecord record, String rowHash) {
+    }
+
+    private record SealedRow(long id, LocalDateTime changedAt, String rowHash) {
+    }
+}
@@ -0,0 +1,142 @@
+package com.auditready.studentsystem.audit;
+
+import com.auditready.studentsystem.entity.AuditLog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rebuilds the full old/new JSON views of an entity's audit history from a mix of
+ * legacy full rows, snapshots and field-level deltas.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AuditHistoryReconstructor {
+
+    private static final TypeReference<List<Map<String, JsonNode>>> CHANGES = new TypeReference<>() {
+    };
+
+    private final ObjectMapper objectMapper;
+    private final AuditPayloadCodec codec;
+
+    /**
+     * @param ascending one entity's audit rows ordered by {@code (changedAt, id)} ascending
+     * @return detached copies with {@code oldValues}/{@code newValues} populated, same order
+     */
+    public List<AuditLog> reconstruct(List<AuditLog> ascending) {
+        List<AuditLog> result = new ArrayList<>(ascending.size());
+        ObjectNode state = null;
+        for (AuditLog row : ascending) {
+            ObjectNode oldState;
+            ObjectNode newState;
+            String type = row.getPayloadType();
+
+            if (type == null) {
+                oldState = parse(row.getOldValues());
+                newState = parse(row.getNewValues());
+            } else if (AuditPayloadType.SNAPSHOT.equals(type)) {
+                if ("DELETE".equals(row.getAction())) {
+                    oldState = parse(codec.decode(row.getOldValues(), row.getCompressed()));
+                    newState = null;
+                } else {
+                    newState = parse(codec.decode(row.getNewValues(), row.getCompressed()));
+                    oldState = "UPDATE".equals(row.getAction()) ? apply(newState, row.getDiff(), false) : null;
+                }
+            } else if ("DELETE".equals(row.getAction())) {
+                oldState = state;
+                newState = null;
+            } else {
+                if (state == null) {
+                    log.warn("Audit delta {} has no preceding snapshot; values cannot be reconstructed", row.getId());
+                }
+                oldState = state;
+                newState = state == null ? null : apply(state, row.getDiff(), true);
+            }
+
+            result.add(copyWithValues(row, write(oldState), write(newState)));
+            state = newState;
+        }
+        return result;
+    }
+
+    /**
+     * Applies a JSON field-change list to a copy of {@code base}, forwards (new values) or
+     * backwards (old values).
+     */
+    public ObjectNode apply(ObjectNode base, String diffJson, boolean forward) {
+        if (base == null) {
+            return null;
+        }
+        ObjectNode copy = base.deepCopy();
+        for (Map<String, JsonNode> change : parseChanges(diffJson)) {
+            JsonNode field = change.get("field");
+            if (field == null) {
+                continue;
+            }
+            JsonNode value = change.get(forward ? "new" : "old");
+            copy.set(field.asText(), value == null ? objectMapper.nullNode() : value);
+        }
+        return copy;
+    }
+
+    public List<Map<String, JsonNode>> parseChanges(String diffJson) {
+        if (diffJson == null || !diffJson.startsWith("[")) {
+            return List.of();
+        }
+        try {
+            return objectMapper.readValue(diffJson, CHANGES);
+        } catch (JsonProcessingException e) {
+            log.warn("Unreadable audit delta", e);
+            return List.of();
+        }
+    }
+
+    public ObjectNode parse(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            JsonNode node = objectMapper.readTree(json);
+            return node instanceof ObjectNode objectNode ? objectNode : null;
+        } catch (JsonProcessingException e) {
+            log.warn("Unreadable audit snapshot", e);
+            return null;
+        }
+    }
+
+    public String write(JsonNode node) {
+        if (node == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize reconstructed audit state", e);
+        }
+    }
+
+    private static AuditLog copyWithValues(AuditLog row, String oldValues, String newValues) {
+        return AuditLog.builder()
+                .id(row.getId())
+                .action(row.getAction())
+                .entityName(row.getEntityName())
+                .entityId(row.getEntityId())
+                .changedBy(row.getChangedBy())
+                .changedAt(row.getChangedAt())
+                .oldValues(oldValues)
+                .newValues(newValues)
+                .diff(row.getDiff())
+                .payloadType(row.getPayloadType())
+                .build();
+    }
+}
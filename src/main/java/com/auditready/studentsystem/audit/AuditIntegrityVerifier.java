@@ -0,0 +1,256 @@
+package com.auditready.studentsystem.audit;
+
+import com.auditready.studentsystem.dto.AuditIntegrityReport;
+import com.auditready.studentsystem.entity.AuditSegment;
+import com.auditready.studentsystem.repository.AuditSegmentRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Checks the audit hash chain segment by segment. Each segment starts from the chain hash
+ * recorded for it, so segments are verified independently on a fork-join pool; only the
+ * links between segments are checked sequentially. Archived segments are read from their
+ * segment files. A segment that passes is stamped with {@code verifiedAt}, and incremental
+ * runs skip stamped segments.
+ */
+@Slf4j
+@Component
+public class AuditIntegrityVerifier {
+
+    private static final int MAX_REPORTED_VIOLATIONS = 100;
+
+    private final AuditHashChain hashChain;
+    private final AuditArchive archive;
+    private final AuditSegmentRepository segmentRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool pool;
+    private final Timer verifyTimer;
+    private final Counter rowsCounter;
+
+    public AuditIntegrityVerifier(AuditHashChain hashChain, AuditArchive archive,
+            AuditSegmentRepository segmentRepository,
+            DataSource dataSource, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${audit.integrity.parallelism:0}") int parallelism,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize) {
+        this.hashChain = hashChain;
+        this.archive = archive;
+        this.segmentRepository = segmentRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        // Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of buffering the result set
+        this.streamingTemplate = new JdbcTemplate(dataSource);
+        this.streamingTemplate.setFetchSize(Integer.MIN_VALUE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Each worker holds a pooled connection while it streams a segment; leave at least
+        // half the pool to requests and the audit writer
+        int threads = Math.min(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors(),
+                Math.max(1, poolSize / 2));
+        this.pool = new ForkJoinPool(threads, p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("audit-verify-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        this.verifyTimer = Timer.builder("audit.integrity.verify").register(meterRegistry);
+        this.rowsCounter = Counter.builder("audit.integrity.rows.verified").register(meterRegistry);
+    }
+
+    /**
+     * Seals pending rows into segments, then verifies the chain.
+     *
+     * @param full re-verify every segment instead of only those never found intact
+     */
+    public synchronized AuditIntegrityReport verify(boolean full) {
+        long started = System.nanoTime();
+        hashChain.sealSegments();
+        List<AuditSegment> segments = segmentRepository.findAllByOrderByFirstLogIdAsc();
+        Queue<AuditIntegrityReport.Violation> violations = new ConcurrentLinkedQueue<>();
+        AtomicLong violationCount = new AtomicLong();
+
+        // The chain starts at the first row that existed when it was backfilled, not at id 1
+        String previous = AuditHashChain.GENESIS;
+        long expectedFirst = segments.isEmpty() ? 0 : segments.get(0).getFirstLogId();
+        for (AuditSegment segment : segments) {
+            if (!segment.getPrevHash().equals(previous) || segment.getFirstLogId() != expectedFirst) {
+                report(violations, violationCount, segment.getId(), null,
+                        "Segment does not continue from the previous segment");
+            }
+            previous = segment.getEndHash();
+            expectedFirst = segment.getLastLogId() + 1;
+        }
+
+        if (!segments.isEmpty()) {
+            Long unchained = jdbcTemplate.queryForObject("SELECT MIN(id) FROM audit_logs WHERE id < ?",
+                    Long.class, segments.get(0).getFirstLogId());
+            if (unchained != null) {
+                report(violations, violationCount, null, unchained, "Row precedes the start of the chain");
+            }
+        }
+
+        // Sealing stops at a row without a hash, so the unsealed tail is checked here
+        long sealedUpTo = segments.isEmpty() ? 0 : segments.get(segments.size() - 1).getLastLogId();
+        Long unhashed = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM audit_logs WHERE id > ? AND row_hash IS NULL", Long.class, sealedUpTo);
+        if (unhashed != null) {
+            report(violations, violationCount, null, unhashed, "Unsealed row has no chain hash");
+        }
+
+        List<AuditSegment> pending = full ? segments
+                : segments.stream().filter(segment -> segment.getVerifiedAt() == null).toList();
+        Queue<Long> intact = new ConcurrentLinkedQueue<>();
+        long rows = verifyTimer.record(() -> pool.invoke(
+                new VerifyTask(pending, 0, pending.size(), intact, violations, violationCount)));
+        rowsCounter.increment(rows);
+        if (!intact.isEmpty()) {
+            List<Long> ids = new ArrayList<>(intact);
+            transactionTemplate.executeWithoutResult(
+                    status -> segmentRepository.markVerified(ids, LocalDateTime.now()));
+        }
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        List<AuditIntegrityReport.Violation> reported = new ArrayList<>(violations);
+        log.info("Audit integrity check verified {} rows in {} of {} segments in {} ms ({} violations)", rows,
+                pending.size(), segments.size(), elapsedMs, violationCount.get());
+        return new AuditIntegrityReport(violationCount.get() == 0, segments.size(), pending.size(), rows,
+                violationCount.get(), reported, elapsedMs, rows * 1000.0 / elapsedMs);
+    }
+
+    public List<AuditSegment> latestSegments(int limit) {
+        return segmentRepository.findByOrderByLastLogIdDesc(PageRequest.of(0, Math.max(1, Math.min(limit, 1000))));
+    }
+
+    /**
+     * Recomputes each row's hash from its content and the previous stored hash, so a
+     * tampered row is reported on its own instead of every row after it.
+     */
+    private SegmentCheck verifySegment(AuditSegment segment) {
+        MessageDigest digest = AuditHashChain.sha256();
+        List<String> hashes = new ArrayList<>(segment.getRowCount());
+        List<AuditIntegrityReport.Violation> found = new ArrayList<>();
+        String[] previous = { segment.getPrevHash() };
+        Consumer<AuditHashChain.StoredRow> check = row -> {
+            String expected = AuditHashChain.hash(digest, previous[0], row.record());
+            if (row.rowHash() == null) {
+                found.add(new AuditIntegrityReport.Violation(segment.getId(), row.id(), "Row has no chain hash"));
+            } else if (!expected.equals(row.rowHash())) {
+                found.add(new AuditIntegrityReport.Violation(segment.getId(), row.id(),
+                        "Row does not match its chain hash"));
+            }
+            previous[0] = row.rowHash() == null ? expected : row.rowHash();
+            hashes.add(previous[0]);
+        };
+        if (segment.getArchiveFile() == null) {
+            streamingTemplate.query("SELECT " + AuditHashChain.ROW_COLUMNS
+                    + " FROM audit_logs WHERE id BETWEEN ? AND ? ORDER BY id",
+                    (RowCallbackHandler) rs -> check.accept(AuditHashChain.mapRow(rs)),
+                    segment.getFirstLogId(), segment.getLastLogId());
+        } else {
+            try {
+                archive.forEachRow(segment, check);
+            } catch (RuntimeException e) {
+                found.add(new AuditIntegrityReport.Violation(segment.getId(), null,
+                        "Archive file " + segment.getArchiveFile() + " is unreadable: " + e.getMessage()));
+                return new SegmentCheck(hashes.size(), found);
+            }
+        }
+
+        if (hashes.size() != segment.getRowCount()) {
+            found.add(new AuditIntegrityReport.Violation(segment.getId(), null,
+                    "Segment holds " + hashes.size() + " rows, sealed with " + segment.getRowCount()));
+        }
+        if (!Objects.equals(previous[0], segment.getEndHash())) {
+            found.add(new AuditIntegrityReport.Violation(segment.getId(), null,
+                    "Chain does not end at the sealed hash"));
+        }
+        if (!AuditHashChain.merkleRoot(hashes).equals(segment.getMerkleRoot())) {
+            found.add(new AuditIntegrityReport.Violation(segment.getId(), null, "Merkle root does not match"));
+        }
+        return new SegmentCheck(hashes.size(), found);
+    }
+
+    private static void report(Queue<AuditIntegrityReport.Violation> violations, AtomicLong violationCount,
+            Long segmentId, Long auditLogId, String reason) {
+        if (violationCount.incrementAndGet() <= MAX_REPORTED_VIOLATIONS) {
+            violations.add(new AuditIntegrityReport.Violation(segmentId, auditLogId, reason));
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        pool.shutdownNow();
+    }
+
+    // Splits the segment list in halves until a task covers one segment; returns rows checked
+    private final class VerifyTask extends RecursiveTask<Long> {
+
+        private final List<AuditSegment> segments;
+        private final int from;
+        private final int to;
+        private final Queue<Long> intact;
+        private final Queue<AuditIntegrityReport.Violation> violations;
+        private final AtomicLong violationCount;
+
+        private VerifyTask(List<AuditSegment> segments, int from, int to, Queue<Long> intact,
+                Queue<AuditIntegrityReport.Violation> violations, AtomicLong violationCount) {
+            this.segments = segments;
+            this.from = from;
+            this.to = to;
+            this.intact = intact;
+            this.violations = violations;
+            this.violationCount = violationCount;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from == 0) {
+                return 0L;
+            }
+            if (to - from == 1) {
+                AuditSegment segment = segments.get(from);
+                SegmentCheck check = verifySegment(segment);
+                if (check.violations().isEmpty()) {
+                    intact.add(segment.getId());
+                }
+                for (AuditIntegrityReport.Violation violation : check.violations()) {
+                    report(violations, violationCount, violation.segmentId(), violation.auditLogId(),
+                            violation.reason());
+                }
+                return check.rows();
+            }
+            int mid = (from + to) >>> 1;
+            VerifyTask left = new VerifyTask(segments, from, mid, intact, violations, violationCount);
+            left.fork();
+            long right = new VerifyTask(segments, mid, to, intact, violations, violationCount).compute();
+            return right + left.join();
+        }
+    }
+
+    private record SegmentCheck(long rows, List<AuditIntegrityReport.Violation> violations) {
+    }
+}
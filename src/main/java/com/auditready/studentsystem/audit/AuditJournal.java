@@ -0,0 +1,296 @@
+package com.auditready.studentsystem.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Append-only local write-ahead journal for audit records that have not yet reached the
+ * database. Records are appended while their business transaction is still open and
+ * forced to disk before it commits; a rolled-back transaction appends an abort marker for
+ * its records.
+ * <p>
+ * The journal is split into segment files ({@code <journal-path>.<n>}) of about
+ * {@code audit.writer.journal-segment-bytes}. A segment is deleted once every record in it
+ * has been flushed, so the journal stays small under steady load. On restart the remaining
+ * segments are replayed (at-least-once); sequence numbers keep increasing across restarts
+ * so the writer can skip records that did reach the database.
+ */
+@Slf4j
+@Component
+public class AuditJournal {
+
+    private static final String ABORT_PREFIX = "A ";
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+    private final boolean fsync;
+    private final long segmentBytes;
+    // Segment holding each record that is neither flushed nor aborted
+    private final Map<Long, Segment> outstanding = new HashMap<>();
+    private Segment active;
+    private long nextSegment;
+    private long nextSeq = 1;
+
+    public AuditJournal(ObjectMapper objectMapper,
+            @Value("${audit.writer.journal-path:data/audit-journal.log}") String path,
+            @Value("${audit.writer.journal-fsync:true}") boolean fsync,
+            @Value("${audit.writer.journal-segment-bytes:8388608}") long segmentBytes) {
+        this.objectMapper = objectMapper;
+        this.path = Path.of(path).toAbsolutePath();
+        this.fsync = fsync;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Reads records left behind by a previous run, in sequence order, and opens a new
+     * segment for appending.
+     *
+     * @param lastWrittenSeq highest sequence number already in the database; new records
+     *                       are numbered above it and above anything in the journal
+     */
+    public synchronized List<AuditRecord> recover(long lastWrittenSeq) {
+        List<AuditRecord> pending = new ArrayList<>();
+        try {
+            Files.createDirectories(path.getParent());
+            TreeMap<Long, Path> files = segmentFiles();
+            Set<Long> aborted = new HashSet<>();
+            for (Path file : files.values()) {
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    try {
+                        if (line.startsWith(ABORT_PREFIX)) {
+                            aborted.add(Long.parseLong(line.substring(ABORT_PREFIX.length()).trim()));
+                            continue;
+                        }
+                        AuditRecord record = objectMapper.readValue(line, AuditRecord.class);
+                        pending.add(record);
+                        nextSeq = Math.max(nextSeq, record.seq() + 1);
+                    } catch (IOException | NumberFormatException e) {
+                        // A torn final line from a crash mid-append; everything before it is intact
+                        log.warn("Skipping unreadable audit journal entry in {}", file.getFileName());
+                    }
+                }
+            }
+            pending.removeIf(record -> aborted.contains(record.seq()));
+            nextSeq = Math.max(nextSeq, lastWrittenSeq + 1);
+            nextSegment = files.isEmpty() ? 1 : Math.max(1, files.lastKey() + 1);
+
+            // Abort markers may sit in a later file than their records, so the recovered
+            // files are kept, and deleted, together
+            Segment recovered = new Segment(List.copyOf(files.values()), null);
+            for (AuditRecord record : pending) {
+                outstanding.put(record.seq(), recovered);
+                recovered.pending++;
+            }
+            release(recovered);
+            active = openSegment();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open audit journal " + path, e);
+        }
+        if (!pending.isEmpty()) {
+            log.info("Recovered {} unflushed audit records from journal", pending.size());
+        }
+        return pending;
+    }
+
+    /**
+     * Assigns the record its sequence number and appends it. Failures are thrown, so the
+     * caller's transaction does not commit a change whose audit record could be lost.
+     *
+     * @param force also force the journal to disk now instead of at the next {@link #sync()}
+     */
+    public synchronized AuditRecord append(AuditRecord record, boolean force) {
+        AuditRecord journaled = record.withSeq(nextSeq++);
+        try {
+            if (active.size >= segmentBytes) {
+                roll();
+            }
+            write(objectMapper.writeValueAsString(journaled));
+            if (force) {
+                sync();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append audit record to journal", e);
+        }
+        outstanding.put(journaled.seq(), active);
+        active.pending++;
+        return journaled;
+    }
+
+    /**
+     * Forces appended records to disk, when {@code audit.writer.journal-fsync} is on.
+     */
+    public synchronized void sync() {
+        if (!fsync) {
+            return;
+        }
+        try {
+            active.channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to sync audit journal", e);
+        }
+    }
+
+    /**
+     * Marks records of a rolled-back transaction so they are not replayed.
+     */
+    public synchronized void abort(Collection<AuditRecord> records) {
+        for (AuditRecord record : records) {
+            Segment segment = outstanding.get(record.seq());
+            if (segment == null) {
+                continue;
+            }
+            try {
+                write(ABORT_PREFIX + record.seq());
+            } catch (IOException e) {
+                log.error("Failed to mark rolled-back audit record {} in the journal", record.seq(), e);
+                continue;
+            }
+            outstanding.remove(record.seq());
+            if (segment != active) {
+                // The marker must outlive the record it cancels
+                active.pending++;
+                segment.pinned.add(active);
+            }
+            segment.pending--;
+            release(segment);
+        }
+    }
+
+    public synchronized void markFlushed(Collection<AuditRecord> records) {
+        for (AuditRecord record : records) {
+            Segment segment = outstanding.remove(record.seq());
+            if (segment != null) {
+                segment.pending--;
+                release(segment);
+            }
+        }
+    }
+
+    synchronized int segmentCount() {
+        try {
+            return segmentFiles().size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Deletes a finished segment, or empties the active one, once nothing in it is outstanding
+    private void release(Segment segment) {
+        if (segment.pending > 0) {
+            return;
+        }
+        try {
+            if (segment == active) {
+                segment.channel.truncate(0);
+                segment.size = 0;
+                return;
+            }
+            if (segment.channel != null) {
+                segment.channel.close();
+            }
+            for (Path file : segment.files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.error("Failed to release audit journal segment {}", segment.files, e);
+            return;
+        }
+        for (Segment pinned : segment.pinned) {
+            pinned.pending--;
+            release(pinned);
+        }
+        segment.pinned.clear();
+    }
+
+    private void roll() throws IOException {
+        Segment finished = active;
+        if (fsync) {
+            finished.channel.force(false);
+        }
+        active = openSegment();
+        finished.channel.close();
+        finished.channel = null;
+        release(finished);
+    }
+
+    private Segment openSegment() throws IOException {
+        Path file = path.resolveSibling(path.getFileName() + "." + nextSegment++);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        Segment segment = new Segment(List.of(file), channel);
+        segment.size = channel.size();
+        return segment;
+    }
+
+    // Journal files by segment number; a file from before segmentation counts as segment 0
+    private TreeMap<Long, Path> segmentFiles() throws IOException {
+        TreeMap<Long, Path> files = new TreeMap<>();
+        if (Files.exists(path)) {
+            files.put(0L, path);
+        }
+        String prefix = path.getFileName() + ".";
+        try (DirectoryStream<Path> siblings = Files.newDirectoryStream(path.getParent(), prefix + "*")) {
+            for (Path file : siblings) {
+                String suffix = file.getFileName().toString().substring(prefix.length());
+                if (!suffix.isEmpty() && suffix.chars().allMatch(Character::isDigit)) {
+                    files.put(Long.parseLong(suffix), file);
+                }
+            }
+        }
+        return files;
+    }
+
+    private void write(String entry) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap((entry + "\n").getBytes(StandardCharsets.UTF_8));
+        active.size += buffer.remaining();
+        while (buffer.hasRemaining()) {
+            active.channel.write(buffer);
+        }
+    }
+
+    @PreDestroy
+    synchronized void close() throws IOException {
+        if (active != null && active.channel != null) {
+            active.channel.close();
+        }
+    }
+
+    private static final class Segment {
+
+        private final List<Path> files;
+        // Later segments holding abort markers for records in this one
+        private final List<Segment> pinned = new ArrayList<>();
+        private FileChannel channel;
+        private long size;
+        private int pending;
+
+        private Segment(List<Path> files, FileChannel channel) {
+            this.files = files;
+            this.channel = channel;
+        }
+    }
+}
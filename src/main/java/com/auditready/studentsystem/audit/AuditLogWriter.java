@@ -0,0 +1,391 @@
+package com.auditready.studentsystem.audit;
+
+import com.auditready.studentsystem.dto.AuditLogView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background writer that takes committed audit records off the request path and
+ * persists them to {@code audit_logs} in JDBC batches, together with their rows in the
+ * field change index. Only the writer thread writes, one batch at a time through
+ * {@link AuditHashChain}, so rows are hashed onto their predecessor, and published to the
+ * feed, in submission order.
+ */
+@Slf4j
+@Component
+public class AuditLogWriter {
+
+    private static final String INSERT_SQL = "INSERT INTO audit_logs "
+            + "(action, entity_name, entity_id, changed_by, changed_at, old_values, new_values, diff, "
+            + "payload_type, compressed, row_hash, journal_seq) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String DEAD_LETTER_SQL = "INSERT INTO audit_dead_letters "
+            + "(journal_seq, record, error, failed_at) VALUES (?, ?, ?, ?)";
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditJournal journal;
+    private final AuditFeed auditFeed;
+    private final AuditFieldChangeIndex fieldChangeIndex;
+    private final AuditHashChain hashChain;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<AuditRecord> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "audit-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Recovered records and records whose last write attempt failed, in order; written
+    // ahead of the queue. Only touched by the writer thread.
+    private final Deque<AuditRecord> retry = new ArrayDeque<>();
+    private volatile AuditRecord retryHead;
+
+    private final Counter writtenCounter;
+    private final Counter deferredCounter;
+    private final Counter deadLetterCounter;
+    private final Timer flushTimer;
+
+    public AuditLogWriter(JdbcTemplate jdbcTemplate, AuditJournal journal, AuditFeed auditFeed,
+            AuditFieldChangeIndex fieldChangeIndex, AuditHashChain hashChain, ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${audit.writer.queue-capacity:10000}") int queueCapacity,
+            @Value("${audit.writer.batch-size:500}") int batchSize,
+            @Value("${audit.writer.flush-interval-ms:200}") long flushIntervalMs,
+            @Value("${audit.writer.offer-timeout-ms:50}") long offerTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.journal = journal;
+        this.auditFeed = auditFeed;
+        this.fieldChangeIndex = fieldChangeIndex;
+        this.hashChain = hashChain;
+        this.objectMapper = objectMapper;
+        // Audit and field change rows commit together, so a retried batch never leaves
+        // half of itself behind. REQUIRES_NEW keeps the writes out of any transaction bound
+        // to the calling thread.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+
+        Gauge.builder("audit.writer.queue.depth", queue, BlockingQueue::size)
+                .description("Audit records waiting to be written")
+                .register(meterRegistry);
+        Gauge.builder("audit.writer.lag", this, AuditLogWriter::lagMillis)
+                .description("Age in milliseconds of the oldest unwritten audit record")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("audit.writer.records.written").register(meterRegistry);
+        this.deferredCounter = Counter.builder("audit.writer.records.deferred")
+                .description("Records left in the journal for the next start because the queue stayed full")
+                .register(meterRegistry);
+        this.deadLetterCounter = Counter.builder("audit.writer.records.dead_lettered")
+                .description("Records the database rejected, moved to audit_dead_letters")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("audit.writer.flush").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        Long lastWritten = jdbcTemplate.queryForObject("SELECT MAX(journal_seq) FROM audit_logs", Long.class);
+        List<AuditRecord> recovered = new ArrayList<>(journal.recover(lastWritten == null ? 0 : lastWritten));
+        if (!recovered.isEmpty()) {
+            // Records whose batch committed just before a crash are already in the table
+            long first = recovered.get(0).seq();
+            long last = recovered.get(recovered.size() - 1).seq();
+            Set<Long> written = new HashSet<>(jdbcTemplate.queryForList(
+                    "SELECT journal_seq FROM audit_logs WHERE journal_seq BETWEEN ? AND ? UNION "
+                            + "SELECT journal_seq FROM audit_dead_letters WHERE journal_seq BETWEEN ? AND ?",
+                    Long.class, first, last, first, last));
+            List<AuditRecord> duplicates = recovered.stream().filter(record -> written.contains(record.seq())).toList();
+            recovered.removeAll(duplicates);
+            journal.markFlushed(duplicates);
+            if (!duplicates.isEmpty()) {
+                log.info("Skipped {} recovered audit records that were already written", duplicates.size());
+            }
+        }
+        retry.addAll(recovered);
+        retryHead = retry.peekFirst();
+        flush();
+        scheduler.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Hands a record to the writer. Inside a transaction the record is journaled right away
+     * and forced to disk before the transaction commits, so a committed change is never
+     * missing from both the journal and the database; it is only queued for writing once the
+     * transaction commits, and marked aborted if it rolls back.
+     */
+    public void submit(AuditRecord record) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(journal.append(record, true));
+            return;
+        }
+        PendingRecords pending = null;
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingRecords candidate && candidate.writer() == this) {
+                pending = candidate;
+            }
+        }
+        if (pending == null) {
+            pending = new PendingRecords();
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.add(record);
+    }
+
+    private void enqueue(AuditRecord journaled) {
+        boolean accepted;
+        try {
+            accepted = queue.offer(journaled, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            // The queue stays full while the database is down. The record is already forced to
+            // the journal, so the committing thread does not wait: the record is written when
+            // the journal is replayed on the next start, behind the records queued after it.
+            deferredCounter.increment();
+            log.warn("Audit queue full; record {} stays in the journal until the next start", journaled.seq());
+            if (!scheduler.isShutdown()) {
+                scheduler.execute(this::flush);
+            }
+            return;
+        }
+        if (queue.size() >= batchSize && !scheduler.isShutdown()) {
+            scheduler.execute(this::flush);
+        }
+    }
+
+    private void flush() {
+        try {
+            while (!retry.isEmpty() || !queue.isEmpty()) {
+                List<AuditRecord> batch = new ArrayList<>(batchSize);
+                while (batch.size() < batchSize && !retry.isEmpty()) {
+                    batch.add(retry.pollFirst());
+                }
+                queue.drainTo(batch, batchSize - batch.size());
+                long started = System.nanoTime();
+                int written = write(batch);
+                flushTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                if (written < batch.size()) {
+                    List<AuditRecord> unwritten = batch.subList(written, batch.size());
+                    for (int i = unwritten.size() - 1; i >= 0; i--) {
+                        retry.addFirst(unwritten.get(i));
+                    }
+                    retryHead = retry.peekFirst();
+                    return;
+                }
+                retryHead = retry.peekFirst();
+            }
+        } catch (RuntimeException e) {
+            log.error("Audit writer flush failed", e);
+        }
+    }
+
+    /**
+     * Writes the batch in order. A batch the database rejects is split in halves until the
+     * offending records are isolated and moved to {@code audit_dead_letters}, so one bad
+     * record cannot hold up the rest; any other failure stops the batch for a later retry.
+     *
+     * @return number of leading records written or dead-lettered
+     */
+    private int write(List<AuditRecord> batch) {
+        try {
+            writeBatch(batch);
+            journal.markFlushed(batch);
+            return batch.size();
+        } catch (RuntimeException e) {
+            if (!isRejected(e)) {
+                log.error("Failed to write {} audit records, will retry", batch.size(), e);
+                return 0;
+            }
+            if (batch.size() == 1) {
+                return deadLetter(batch.get(0), e) ? 1 : 0;
+            }
+            int mid = batch.size() / 2;
+            int written = write(batch.subList(0, mid));
+            return written < mid ? written : mid + write(batch.subList(mid, batch.size()));
+        }
+    }
+
+    // The database refused the data itself; retrying the same records cannot succeed
+    private static boolean isRejected(RuntimeException e) {
+        return e instanceof NonTransientDataAccessException && !(e instanceof DataAccessResourceFailureException);
+    }
+
+    private boolean deadLetter(AuditRecord record, RuntimeException cause) {
+        String error = String.valueOf(NestedExceptionUtils.getMostSpecificCause(cause).getMessage());
+        try {
+            String json = objectMapper.writeValueAsString(record);
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(DEAD_LETTER_SQL,
+                    record.seq() > 0 ? record.seq() : null, json,
+                    error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error,
+                    Timestamp.valueOf(LocalDateTime.now())));
+        } catch (DuplicateKeyException e) {
+            // Dead-lettered before a restart
+        } catch (JsonProcessingException | RuntimeException e) {
+            log.error("Failed to dead-letter audit record {}, will retry", record.seq(), e);
+            return false;
+        }
+        log.error("Audit record {} ({} {} {}) rejected by the database and moved to audit_dead_letters: {}",
+                record.seq(), record.action(), record.entityName(), record.entityId(), error);
+        deadLetterCounter.increment();
+        journal.markFlushed(List.of(record));
+        return true;
+    }
+
+    private void writeBatch(List<AuditRecord> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<AuditLogView> written = hashChain.append(batch, hashes -> transactionTemplate.execute(
+                status -> jdbcTemplate.execute((ConnectionCallback<List<AuditLogView>>) connection ->
+                        insertBatch(connection, batch, hashes))));
+        writtenCounter.increment(batch.size());
+        if (written != null) {
+            auditFeed.publish(written);
+        }
+    }
+
+    // Generated ids are read back so the live feed can use them as event ids
+    private List<AuditLogView> insertBatch(Connection connection, List<AuditRecord> batch, List<String> hashes)
+            throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < batch.size(); i++) {
+                AuditRecord record = batch.get(i);
+                ps.setString(1, record.action());
+                ps.setString(2, record.entityName());
+                ps.setObject(3, record.entityId());
+                ps.setString(4, record.changedBy());
+                ps.setTimestamp(5, Timestamp.valueOf(AuditHashChain.storedTime(record.changedAt())));
+                ps.setString(6, record.oldValues());
+                ps.setString(7, record.newValues());
+                ps.setString(8, record.diff());
+                ps.setString(9, record.payloadType());
+                ps.setObject(10, record.compressed());
+                ps.setString(11, hashes.get(i));
+                ps.setObject(12, record.seq() > 0 ? record.seq() : null, Types.BIGINT);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            List<AuditLogView> views = new ArrayList<>(batch.size());
+            List<AuditFieldChangeIndex.Row> fieldChanges = new ArrayList<>();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                for (AuditRecord record : batch) {
+                    if (!keys.next()) {
+                        break;
+                    }
+                    long id = keys.getLong(1);
+                    views.add(new AuditLogView(id, record.action(), record.entityName(), record.entityId(),
+                            record.changedBy(), record.changedAt(), record.diff()));
+                    fieldChanges.addAll(fieldChangeIndex.rowsFor(id, record));
+                }
+            }
+            fieldChangeIndex.insert(connection, fieldChanges);
+            return views;
+        }
+    }
+
+    private double lagMillis() {
+        AuditRecord oldest = retryHead != null ? retryHead : queue.peek();
+        return oldest == null ? 0 : Duration.between(oldest.changedAt(), LocalDateTime.now()).toMillis();
+    }
+
+    // Audit records of one transaction; the journal is forced once, before the commit
+    private final class PendingRecords implements TransactionSynchronization {
+
+        private final List<AuditRecord> records = new ArrayList<>();
+        private boolean synced;
+
+        private AuditLogWriter writer() {
+            return AuditLogWriter.this;
+        }
+
+        // Once beforeCommit has run, records raised by the flush inside the commit are forced at once.
+        // A transaction whose first record comes from that flush never sees beforeCommit; its
+        // records are written before the commit and forced in afterCommit.
+        private void add(AuditRecord record) {
+            records.add(journal.append(record, synced));
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            journal.sync();
+            synced = true;
+        }
+
+        @Override
+        public void afterCommit() {
+            if (!synced) {
+                try {
+                    journal.sync();
+                } catch (RuntimeException e) {
+                    log.error("Failed to sync {} committed audit records to the journal", records.size(), e);
+                }
+            }
+            records.forEach(AuditLogWriter.this::enqueue);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (status != STATUS_COMMITTED && !records.isEmpty()) {
+                journal.abort(records);
+            }
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+    }
+}
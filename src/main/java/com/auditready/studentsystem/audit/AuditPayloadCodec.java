@@ -0,0 +1,55 @@
+package com.auditready.studentsystem.audit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Optional GZIP + Base64 encoding for audit snapshot payloads stored in TEXT columns.
+ */
+@Component
+public class AuditPayloadCodec {
+
+    private final boolean compress;
+
+    public AuditPayloadCodec(@Value("${audit.storage.compress:true}") boolean compress) {
+        this.compress = compress;
+    }
+
+    public boolean isCompressing() {
+        return compress;
+    }
+
+    public String encode(String json) {
+        if (!compress || json == null) {
+            return json;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length() / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(json.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getEncoder().encodeToString(bytes.toByteArray());
+    }
+
+    public String decode(String payload, Boolean compressed) {
+        if (payload == null || !Boolean.TRUE.equals(compressed)) {
+            return payload;
+        }
+        try (GZIPInputStream gzip = new GZIPInputStream(
+                new ByteArrayInputStream(Base64.getDecoder().decode(payload)))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.auditready.studentsystem.audit;
+
+public final class AuditPayloadType {
+
+    // Row carries the full entity state (new state, or old state for a DELETE)
+    public static final String SNAPSHOT = "SNAPSHOT";
+
+    // Row carries only the field-level changes in its diff column
+    public static final String DELTA = "DELTA";
+
+    private AuditPayloadType() {
+    }
+}
@@ -0,0 +1,30 @@
+package com.auditready.studentsystem.audit;
+
+import java.time.LocalDateTime;
+
+/**
+ * Compact, immutable audit entry captured on the request thread and persisted
+ * later by {@link AuditLogWriter}. The sequence number is assigned by the journal.
+ *
+ * @param scope grouping value copied onto the field change index, such as a student's
+ *              department; see {@link AuditFieldChangeIndex#scopeOf}
+ */
+public record AuditRecord(
+        long seq,
+        String action,
+        String entityName,
+        Long entityId,
+        String changedBy,
+        LocalDateTime changedAt,
+        String oldValues,
+        String newValues,
+        String diff,
+        String payloadType,
+        Boolean compressed,
+        String scope) {
+
+    public AuditRecord withSeq(long seq) {
+        return new AuditRecord(seq, action, entityName, entityId, changedBy, changedAt, oldValues, newValues, diff,
+                payloadType, compressed, scope);
+    }
+}
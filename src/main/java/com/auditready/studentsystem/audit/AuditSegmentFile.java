@@ -0,0 +1,334 @@
+package com.auditready.studentsystem.audit;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Immutable on-disk copy of one archived audit segment. Rows are stored in id order in
+ * Deflate-compressed blocks, followed by a sparse index holding one entry per block (id
+ * and {@code changedAt} range, file offset) and a fixed-size footer. Files are read through
+ * a read-only memory mapping, and only the blocks a query needs are inflated.
+ *
+ * <pre>
+ * header  int magic, int version
+ * blocks  deflate(row*)
+ * index   (long firstId, long lastId, long minMicros, long maxMicros, long offset,
+ *          int length, int rawLength, int rows) per block
+ * footer  long indexOffset, int blockCount, int magic
+ * </pre>
+ */
+final class AuditSegmentFile {
+
+    private static final int MAGIC = 0x41534547; // "ASEG"
+    private static final int VERSION = 1;
+    private static final int FOOTER_BYTES = Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+    private final MappedByteBuffer buffer;
+    private final List<Block> blocks;
+
+    private AuditSegmentFile(MappedByteBuffer buffer, List<Block> blocks) {
+        this.buffer = buffer;
+        this.blocks = blocks;
+    }
+
+    static AuditSegmentFile open(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < 2L * Integer.BYTES + FOOTER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Not an audit segment file: " + path);
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int footer = (int) size - FOOTER_BYTES;
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION
+                    || buffer.getInt(footer + Long.BYTES + Integer.BYTES) != MAGIC) {
+                throw new IOException("Corrupt or unsupported audit segment file: " + path);
+            }
+            int position = (int) buffer.getLong(footer);
+            int blockCount = buffer.getInt(footer + Long.BYTES);
+            List<Block> blocks = new ArrayList<>(blockCount);
+            for (int i = 0; i < blockCount; i++) {
+                blocks.add(new Block(buffer.getLong(position), buffer.getLong(position + 8),
+                        fromMicros(buffer.getLong(position + 16)), fromMicros(buffer.getLong(position + 24)),
+                        buffer.getLong(position + 32), buffer.getInt(position + 40), buffer.getInt(position + 44),
+                        buffer.getInt(position + 48)));
+                position += Block.BYTES;
+            }
+            return new AuditSegmentFile(buffer, List.copyOf(blocks));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    List<Block> blocks() {
+        return blocks;
+    }
+
+    /**
+     * Inflates the blocks accepted by {@code blockFilter} and passes their rows, in id
+     * order, to {@code consumer}. Safe for concurrent use.
+     */
+    void forEach(Predicate<Block> blockFilter, Consumer<AuditHashChain.StoredRow> consumer) {
+        for (Block block : blocks) {
+            if (!blockFilter.test(block)) {
+                continue;
+            }
+            ByteBuffer raw = ByteBuffer.wrap(inflate(block));
+            for (int i = 0; i < block.rows(); i++) {
+                consumer.accept(readRow(raw));
+            }
+        }
+    }
+
+    private byte[] inflate(Block block) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(buffer.slice((int) block.offset(), block.length()));
+            byte[] raw = new byte[block.rawLength()];
+            int read = 0;
+            while (read < raw.length && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, raw.length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != raw.length) {
+                throw new IllegalStateException("Truncated audit segment block at offset " + block.offset());
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt audit segment block at offset " + block.offset(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static AuditHashChain.StoredRow readRow(ByteBuffer raw) {
+        long id = raw.getLong();
+        LocalDateTime changedAt = fromMicros(raw.getLong());
+        String action = readString(raw);
+        String entityName = readString(raw);
+        Long entityId = raw.get() == 0 ? null : raw.getLong();
+        String changedBy = readString(raw);
+        String oldValues = readString(raw);
+        String newValues = readString(raw);
+        String diff = readString(raw);
+        String payloadType = readString(raw);
+        byte compressed = raw.get();
+        String rowHash = readString(raw);
+        AuditRecord record = new AuditRecord(0, action, entityName, entityId, changedBy, changedAt, oldValues,
+                newValues, diff, payloadType, compressed < 0 ? null : compressed == 1, null);
+        return new AuditHashChain.StoredRow(id, record, rowHash);
+    }
+
+    private static String readString(ByteBuffer raw) {
+        int length = raw.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(raw.array(), raw.position(), length, StandardCharsets.UTF_8);
+        raw.position(raw.position() + length);
+        return value;
+    }
+
+    static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    /**
+     * Starts a new segment file. Rows are written to a temporary sibling that only replaces
+     * {@code target} on {@link Writer#commit()}.
+     */
+    static Writer create(Path target, int blockRows) {
+        return new Writer(target, blockRows);
+    }
+
+    record Block(long firstId, long lastId, LocalDateTime minChangedAt, LocalDateTime maxChangedAt, long offset,
+            int length, int rawLength, int rows) {
+
+        static final int BYTES = 5 * Long.BYTES + 3 * Integer.BYTES;
+    }
+
+    static final class Writer implements Closeable {
+
+        private final Path target;
+        private final Path temp;
+        private final int blockRows;
+        private final FileOutputStream file;
+        private final DataOutputStream out;
+        private final ByteArrayOutputStream blockBytes = new ByteArrayOutputStream();
+        private final DataOutputStream block = new DataOutputStream(blockBytes);
+        private final Deflater deflater = new Deflater();
+        private final byte[] chunk = new byte[64 * 1024];
+        private final List<Block> index = new ArrayList<>();
+        private long offset;
+        private int pending;
+        private long firstId;
+        private long lastId;
+        private long minMicros;
+        private long maxMicros;
+        private boolean committed;
+
+        private Writer(Path target, int blockRows) {
+            this.target = target;
+            this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+            this.blockRows = blockRows;
+            try {
+                Files.createDirectories(target.getParent());
+                this.file = new FileOutputStream(temp.toFile());
+                this.out = new DataOutputStream(new BufferedOutputStream(file));
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                offset = 2L * Integer.BYTES;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void append(AuditHashChain.StoredRow row) {
+            AuditRecord record = row.record();
+            long micros = toMicros(AuditHashChain.storedTime(record.changedAt()));
+            if (pending == 0) {
+                firstId = row.id();
+                minMicros = micros;
+                maxMicros = micros;
+            }
+            lastId = row.id();
+            minMicros = Math.min(minMicros, micros);
+            maxMicros = Math.max(maxMicros, micros);
+            try {
+                block.writeLong(row.id());
+                block.writeLong(micros);
+                writeString(record.action());
+                writeString(record.entityName());
+                block.writeByte(record.entityId() == null ? 0 : 1);
+                if (record.entityId() != null) {
+                    block.writeLong(record.entityId());
+                }
+                writeString(record.changedBy());
+                writeString(record.oldValues());
+                writeString(record.newValues());
+                writeString(record.diff());
+                writeString(record.payloadType());
+                block.writeByte(record.compressed() == null ? -1 : record.compressed() ? 1 : 0);
+                writeString(row.rowHash());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (++pending >= blockRows) {
+                flushBlock();
+            }
+        }
+
+        /**
+         * Writes the index and footer, syncs the file to disk and moves it into place.
+         *
+         * @return size of the finished file in bytes
+         */
+        long commit() {
+            flushBlock();
+            try {
+                long indexOffset = offset;
+                for (Block entry : index) {
+                    out.writeLong(entry.firstId());
+                    out.writeLong(entry.lastId());
+                    out.writeLong(toMicros(entry.minChangedAt()));
+                    out.writeLong(toMicros(entry.maxChangedAt()));
+                    out.writeLong(entry.offset());
+                    out.writeInt(entry.length());
+                    out.writeInt(entry.rawLength());
+                    out.writeInt(entry.rows());
+                }
+                out.writeLong(indexOffset);
+                out.writeInt(index.size());
+                out.writeInt(MAGIC);
+                out.flush();
+                file.getFD().sync();
+                out.close();
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                committed = true;
+                return Files.size(target);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void flushBlock() {
+            if (pending == 0) {
+                return;
+            }
+            byte[] raw = blockBytes.toByteArray();
+            deflater.reset();
+            deflater.setInput(raw);
+            deflater.finish();
+            int length = 0;
+            try {
+                while (!deflater.finished()) {
+                    int n = deflater.deflate(chunk);
+                    out.write(chunk, 0, n);
+                    length += n;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            index.add(new Block(firstId, lastId, fromMicros(minMicros), fromMicros(maxMicros), offset, length,
+                    raw.length, pending));
+            offset += length;
+            blockBytes.reset();
+            pending = 0;
+        }
+
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                block.writeInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            block.writeInt(bytes.length);
+            block.write(bytes);
+        }
+
+        // Discards the temporary file unless the segment was committed
+        @Override
+        public void close() {
+            deflater.end();
+            if (committed) {
+                return;
+            }
+            try {
+                out.close();
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.auditready.studentsystem.audit;
+
+import com.auditready.studentsystem.dto.AuditMigrationReport;
+import com.auditready.studentsystem.entity.AuditLog;
+import com.auditready.studentsystem.repository.AuditLogRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Converts audit rows that still carry full old/new JSON into the snapshot + delta
+ * encoding. Each entity's history is rewritten in its own transaction, and a row is
+ * only turned into a delta when replaying it reproduces the original values exactly.
+ * Rewritten rows no longer match their chain hashes, so the chain is resealed from the
+ * first rewritten row afterwards.
+ */
+@Slf4j
+@Component
+public class AuditStorageMigrator {
+
+    private final AuditLogRepository auditLogRepository;
+    private final AuditHistoryReconstructor reconstructor;
+    private final AuditPayloadCodec codec;
+    private final SnapshotPolicy snapshotPolicy;
+    private final AuditHashChain hashChain;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public AuditStorageMigrator(AuditLogRepository auditLogRepository, AuditHistoryReconstructor reconstructor,
+            AuditPayloadCodec codec, SnapshotPolicy snapshotPolicy, AuditHashChain hashChain,
+            ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.auditLogRepository = auditLogRepository;
+        this.reconstructor = reconstructor;
+        this.codec = codec;
+        this.snapshotPolicy = snapshotPolicy;
+        this.hashChain = hashChain;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public AuditMigrationReport migrate() {
+        int[] totals = new int[3];
+        long[] bytes = new long[2];
+        long[] firstRewritten = { Long.MAX_VALUE };
+        List<Object[]> keys = auditLogRepository.findLegacyEntityKeys();
+        for (Object[] key : keys) {
+            String entityName = (String) key[0];
+            Long entityId = (Long) key[1];
+            transactionTemplate.executeWithoutResult(
+                    status -> migrateEntity(entityName, entityId, totals, bytes, firstRewritten));
+        }
+        if (totals[0] > 0) {
+            hashChain.reseal(firstRewritten[0]);
+        }
+        log.info("Audit storage migration converted {} rows across {} entities ({} -> {} bytes)",
+                totals[0], keys.size(), bytes[0], bytes[1]);
+        return new AuditMigrationReport(keys.size(), totals[0], totals[1], totals[2], bytes[0], bytes[1]);
+    }
+
+    private void migrateEntity(String entityName, Long entityId, int[] totals, long[] bytes,
+            long[] firstRewritten) {
+        List<AuditLog> rows = new ArrayList<>(
+                auditLogRepository.findByEntityNameAndEntityIdOrderByChangedAtDescIdDesc(entityName, entityId));
+        Collections.reverse(rows);
+        List<AuditLog> expected = reconstructor.reconstruct(rows);
+
+        ObjectNode state = null;
+        int sinceSnapshot = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            AuditLog row = rows.get(i);
+            ObjectNode oldState = reconstructor.parse(expected.get(i).getOldValues());
+            ObjectNode newState = reconstructor.parse(expected.get(i).getNewValues());
+
+            if (row.getPayloadType() == null) {
+                bytes[0] += length(row.getOldValues()) + length(row.getNewValues()) + length(row.getDiff());
+                boolean canDelta = state != null && state.equals(oldState)
+                        && sinceSnapshot + 1 < snapshotPolicy.getInterval();
+
+                if ("UPDATE".equals(row.getAction())) {
+                    row.setDiff(jsonDiff(oldState, newState));
+                }
+                if (canDelta && !"CREATE".equals(row.getAction())) {
+                    row.setOldValues(null);
+                    row.setNewValues(null);
+                    row.setPayloadType(AuditPayloadType.DELTA);
+                    row.setCompressed(null);
+                    sinceSnapshot++;
+                    totals[2]++;
+                } else {
+                    boolean delete = "DELETE".equals(row.getAction());
+                    row.setOldValues(delete ? codec.encode(reconstructor.write(oldState)) : null);
+                    row.setNewValues(delete ? null : codec.encode(reconstructor.write(newState)));
+                    row.setPayloadType(AuditPayloadType.SNAPSHOT);
+                    row.setCompressed(codec.isCompressing() ? Boolean.TRUE : null);
+                    sinceSnapshot = 0;
+                    totals[1]++;
+                }
+                bytes[1] += length(row.getOldValues()) + length(row.getNewValues()) + length(row.getDiff());
+                firstRewritten[0] = Math.min(firstRewritten[0], row.getId());
+                totals[0]++;
+            } else if (AuditPayloadType.SNAPSHOT.equals(row.getPayloadType())) {
+                sinceSnapshot = 0;
+            } else {
+                sinceSnapshot++;
+            }
+            state = newState;
+        }
+    }
+
+    private String jsonDiff(ObjectNode oldState, ObjectNode newState) {
+        ArrayNode changes = objectMapper.createArrayNode();
+        if (oldState == null || newState == null) {
+            return changes.toString();
+        }
+        Set<String> fields = new LinkedHashSet<>();
+        oldState.fieldNames().forEachRemaining(fields::add);
+        newState.fieldNames().forEachRemaining(fields::add);
+        for (String field : fields) {
+            JsonNode oldValue = oldState.get(field);
+            JsonNode newValue = newState.get(field);
+            if (!Objects.equals(oldValue, newValue)) {
+                ObjectNode change = changes.addObject();
+                change.put("field", field);
+                change.set("old", oldValue == null ? objectMapper.nullNode() : oldValue);
+                change.set("new", newValue == null ? objectMapper.nullNode() : newValue);
+            }
+        }
+        return changes.toString();
+    }
+
+    private static long length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
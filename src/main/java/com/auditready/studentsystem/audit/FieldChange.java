@@ -0,0 +1,9 @@
+package com.auditready.studentsystem.audit;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record FieldChange(
+        @JsonProperty("field") String field,
+        @JsonProperty("old") Object oldValue,
+        @JsonProperty("new") Object newValue) {
+}
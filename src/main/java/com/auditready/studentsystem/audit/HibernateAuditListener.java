@@ -0,0 +1,212 @@
+package com.auditready.studentsystem.audit;
+
+import com.auditready.studentsystem.entity.Auditable;
+import com.auditready.studentsystem.entity.Audited;
+import com.auditready.studentsystem.event.AuditedEntityUpdatedEvent;
+import com.auditready.studentsystem.service.AuditService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Audits every {@link Audited} entity from Hibernate's post-insert, post-update and
+ * post-delete events. Snapshots are built from the state arrays Hibernate already holds,
+ * and updates are diffed over its dirty properties, so no copies, reflection or extra
+ * SELECTs are needed. The events fire at flush, inside the transaction; the records are
+ * written once it commits. The optimistic lock version and the {@link Auditable}
+ * bookkeeping columns are not audited. Updates are also published as an
+ * {@link AuditedEntityUpdatedEvent} carrying the old state.
+ */
+@Slf4j
+@Component
+public class HibernateAuditListener
+        implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    static final String REDACTED = "[REDACTED]";
+
+    // Auditable's own columns; the audit log already records who changed what and when
+    private static final Set<String> BOOKKEEPING = Set.of("createdAt", "updatedAt", "createdBy", "updatedBy");
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final AuditService auditService;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    // Keyed by Hibernate entity name; empty for entities that are not audited
+    private final Map<String, Optional<AuditedType>> types = new ConcurrentHashMap<>();
+    private SessionFactoryImplementor sessionFactory;
+
+    public HibernateAuditListener(EntityManagerFactory entityManagerFactory, AuditService auditService,
+            ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.auditService = auditService;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostConstruct
+    void register() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        AuditedType type = typeOf(event.getPersister());
+        if (type != null) {
+            Object[] state = event.getState();
+            auditService.recordCreate(type.name(), entityId(event.getId()),
+                    () -> toJson(type, event.getId(), state));
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        AuditedType type = typeOf(event.getPersister());
+        if (type == null) {
+            return;
+        }
+        Object[] oldState = event.getOldState();
+        Object[] state = event.getState();
+        if (oldState == null) {
+            // Only happens for detached updates without a loaded snapshot, which this app does not issue
+            log.warn("No loaded state for {} {}, update not audited", type.name(), event.getId());
+            return;
+        }
+        int[] dirty = event.getDirtyProperties();
+        List<FieldChange> changes = new ArrayList<>(dirty == null ? state.length : dirty.length);
+        if (dirty != null) {
+            for (int i : dirty) {
+                addChange(type, i, oldState[i], state[i], changes);
+            }
+        } else {
+            for (int i = 0; i < state.length; i++) {
+                if (!Objects.equals(oldState[i], state[i])) {
+                    addChange(type, i, oldState[i], state[i], changes);
+                }
+            }
+        }
+        auditService.recordUpdate(type.name(), entityId(event.getId()),
+                () -> toJson(type, event.getId(), oldState), () -> toJson(type, event.getId(), state), changes,
+                AuditFieldChangeIndex.scopeOf(event.getEntity()));
+        eventPublisher.publishEvent(new AuditedEntityUpdatedEvent(event.getEntity(), type.properties(), oldState));
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        AuditedType type = typeOf(event.getPersister());
+        if (type != null) {
+            Object[] state = event.getDeletedState();
+            auditService.recordDelete(type.name(), entityId(event.getId()),
+                    () -> toJson(type, event.getId(), state));
+        }
+    }
+
+    /**
+     * Audits an insert that bypassed the persistence context, such as a JDBC batch, in the
+     * same format as a flushed insert. The entity must already carry its generated id.
+     */
+    public void recordInsert(Object entity) {
+        EntityPersister persister = sessionFactory.getRuntimeMetamodels().getMappingMetamodel()
+                .getEntityDescriptor(entity.getClass());
+        AuditedType type = typeOf(persister);
+        if (type != null) {
+            Object id = persister.getIdentifierMapping().getIdentifier(entity);
+            Object[] state = persister.getValues(entity);
+            auditService.recordCreate(type.name(), entityId(id), () -> toJson(type, id, state));
+        }
+    }
+
+    // Records run in the flushing transaction; the audit writer defers them to its commit
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private AuditedType typeOf(EntityPersister persister) {
+        return types.computeIfAbsent(persister.getEntityName(), name -> Optional.ofNullable(resolve(persister)))
+                .orElse(null);
+    }
+
+    private static AuditedType resolve(EntityPersister persister) {
+        Class<?> mapped = persister.getMappedClass();
+        Audited audited = mapped.getAnnotation(Audited.class);
+        if (audited == null || !Auditable.class.isAssignableFrom(mapped)) {
+            return null;
+        }
+        String[] properties = persister.getPropertyNames();
+        Set<String> redact = Set.of(audited.redact());
+        boolean[] skipped = new boolean[properties.length];
+        boolean[] redacted = new boolean[properties.length];
+        if (persister.isVersioned()) {
+            skipped[persister.getVersionProperty()] = true;
+        }
+        for (int i = 0; i < properties.length; i++) {
+            skipped[i] |= BOOKKEEPING.contains(properties[i]);
+            redacted[i] = redact.contains(properties[i]);
+        }
+        String name = audited.value().isEmpty() ? mapped.getSimpleName().toUpperCase(Locale.ROOT) : audited.value();
+        log.info("Auditing entity {} as {} ({} properties, redacting {})", persister.getEntityName(), name,
+                properties.length, Arrays.toString(audited.redact()));
+        return new AuditedType(name, properties, skipped, redacted);
+    }
+
+    private static void addChange(AuditedType type, int i, Object oldValue, Object newValue,
+            List<FieldChange> changes) {
+        if (type.skipped()[i]) {
+            return;
+        }
+        changes.add(type.redacted()[i] ? new FieldChange(type.properties()[i], REDACTED, REDACTED)
+                : new FieldChange(type.properties()[i], oldValue, newValue));
+    }
+
+    private String toJson(AuditedType type, Object id, Object[] state) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.set("id", objectMapper.valueToTree(id));
+        for (int i = 0; i < state.length; i++) {
+            if (!type.skipped()[i]) {
+                node.set(type.properties()[i],
+                        type.redacted()[i] ? node.textNode(REDACTED) : objectMapper.valueToTree(state[i]));
+            }
+        }
+        try {
+            return objectMapper.writeValueAsString(node);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize audited state", e);
+        }
+    }
+
+    private static Long entityId(Object id) {
+        return id instanceof Number number ? number.longValue() : null;
+    }
+
+    private record AuditedType(String name, String[] properties, boolean[] skipped, boolean[] redacted) {
+    }
+}
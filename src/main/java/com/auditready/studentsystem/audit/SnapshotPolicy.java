@@ -0,0 +1,57 @@
+package com.auditready.studentsystem.audit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Decides when a delta-encoded audit row must carry a full snapshot instead of a
+ * field-level delta. Counters live in a bounded LRU map; an entity that is not
+ * tracked (first write, eviction, restart) always gets a snapshot, which keeps the
+ * history reconstructible without consulting the database.
+ */
+@Component
+public class SnapshotPolicy {
+
+    private static final int MAX_TRACKED_ENTITIES = 100_000;
+
+    private final int interval;
+    private final Map<String, Integer> sinceSnapshot = new LinkedHashMap<>(1024, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+            return size() > MAX_TRACKED_ENTITIES;
+        }
+    };
+
+    public SnapshotPolicy(@Value("${audit.storage.snapshot-interval:20}") int interval) {
+        this.interval = interval;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    /**
+     * Records one more change for the entity and reports whether it should be a snapshot.
+     */
+    public synchronized boolean snapshotDue(String entityName, Long entityId) {
+        String key = entityName + ":" + entityId;
+        Integer count = sinceSnapshot.get(key);
+        if (count == null || count + 1 >= interval) {
+            sinceSnapshot.put(key, 0);
+            return true;
+        }
+        sinceSnapshot.put(key, count + 1);
+        return false;
+    }
+
+    public synchronized void markSnapshot(String entityName, Long entityId) {
+        sinceSnapshot.put(entityName + ":" + entityId, 0);
+    }
+
+    public synchronized void forget(String entityName, Long entityId) {
+        sinceSnapshot.remove(entityName + ":" + entityId);
+    }
+}
@@ -0,0 +1,17 @@
+package com.auditready.studentsystem.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Caffeine-backed caches for hot student reads. Size, TTL and statistics are set by
+ * {@code spring.cache.caffeine.spec}; actuator publishes the hit/miss/eviction counters as
+ * {@code cache.gets}, {@code cache.puts} and {@code cache.evictions}.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String STUDENTS_BY_ID = "studentsById";
+    public static final String STUDENTS_BY_EMAIL = "studentsByEmail";
+}
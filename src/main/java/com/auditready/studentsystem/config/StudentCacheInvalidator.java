@@ -0,0 +1,42 @@
+package com.auditready.studentsystem.config;
+
+import com.auditready.studentsystem.dto.StudentDto;
+import com.auditready.studentsystem.event.StudentChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts cached student reads once a change commits, under both the id and every email
+ * the student had before or after the change.
+ */
+@Component
+@RequiredArgsConstructor
+public class StudentCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        if (event.type() == StudentChangedEvent.ChangeType.CREATE) {
+            return;
+        }
+        Cache byId = cacheManager.getCache(CacheConfig.STUDENTS_BY_ID);
+        Cache byEmail = cacheManager.getCache(CacheConfig.STUDENTS_BY_EMAIL);
+        if (byId != null) {
+            byId.evict(event.studentId());
+        }
+        if (byEmail != null) {
+            evictEmail(byEmail, event.before());
+            evictEmail(byEmail, event.after());
+        }
+    }
+
+    private static void evictEmail(Cache cache, StudentDto student) {
+        if (student != null && student.email() != null) {
+            cache.evict(student.email());
+        }
+    }
+}
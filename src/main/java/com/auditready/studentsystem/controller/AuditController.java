@@ -1,17 +1,39 @@
 package com.auditready.studentsystem.controller;
 
+import com.auditready.studentsystem.audit.AuditArchive;
+import com.auditready.studentsystem.audit.AuditFeed;
+import com.auditready.studentsystem.audit.AuditFieldChangeIndex;
+import com.auditready.studentsystem.audit.AuditIntegrityVerifier;
+import com.auditready.studentsystem.audit.AuditStorageMigrator;
 import com.auditready.studentsystem.dto.ApiResponse;
+import com.auditready.studentsystem.dto.AuditArchiveReport;
+import com.auditready.studentsystem.dto.AuditIntegrityReport;
+import com.auditready.studentsystem.dto.AuditMigrationReport;
+import com.auditready.studentsystem.dto.AuditLogFilter;
+import com.auditready.studentsystem.dto.AuditLogView;
+import com.auditready.studentsystem.dto.CursorPage;
+import com.auditready.studentsystem.dto.FieldChangeBackfillReport;
+import com.auditready.studentsystem.dto.FieldChangeFilter;
+import com.auditready.studentsystem.dto.FieldChangeView;
 import com.auditready.studentsystem.entity.AuditLog;
+import com.auditready.studentsystem.entity.AuditSegment;
 import com.auditready.studentsystem.service.AuditService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -21,12 +43,65 @@ import java.util.List;
 public class AuditController {
 
     private final AuditService auditService;
+    private final AuditStorageMigrator storageMigrator;
+    private final AuditFeed auditFeed;
+    private final AuditFieldChangeIndex fieldChangeIndex;
+    private final AuditIntegrityVerifier integrityVerifier;
+    private final AuditArchive auditArchive;
 
     @GetMapping("/logs")
-    @Operation(summary = "Get all system audit logs")
+    @Operation(summary = "Get system audit logs", description = "Cursor-paginated, newest first. Pass nextCursor from the previous page as cursor.")
     @org.springframework.security.access.prepost.PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
-    public ResponseEntity<ApiResponse<List<AuditLog>>> getAllLogs() {
-        return ResponseEntity.ok(ApiResponse.success(auditService.getAllLogs(), "Audit logs fetched successfully"));
+    public ResponseEntity<ApiResponse<CursorPage<AuditLogView>>> getLogs(
+            @RequestParam(required = false) String entityName,
+            @RequestParam(required = false) Long entityId,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) String changedBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "false") boolean includeValues) {
+        AuditLogFilter filter = new AuditLogFilter(entityName, entityId, action, changedBy, from, to);
+        return ResponseEntity.ok(ApiResponse.success(auditService.getLogs(filter, cursor, limit, includeValues),
+                "Audit logs fetched successfully"));
+    }
+
+    @GetMapping("/field-changes")
+    @Operation(summary = "Field-level audit changes", description = "One entry per changed field of an update, newest first. Filter by field (e.g. cgpa), scope (a student's department), entity, user and time range; cursor-paginated like /logs.")
+    @org.springframework.security.access.prepost.PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<ApiResponse<CursorPage<FieldChangeView>>> getFieldChanges(
+            @RequestParam(required = false) String entityName,
+            @RequestParam(required = false) Long entityId,
+            @RequestParam(required = false) String field,
+            @RequestParam(required = false) String scope,
+            @RequestParam(required = false) String changedBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        FieldChangeFilter filter = new FieldChangeFilter(entityName, entityId, field, scope, changedBy, from, to);
+        return ResponseEntity.ok(ApiResponse.success(auditService.getFieldChanges(filter, cursor, limit),
+                "Field changes fetched successfully"));
+    }
+
+    @PostMapping("/field-changes/backfill")
+    @Operation(summary = "Index field changes of audit rows written before the field change index existed")
+    @org.springframework.security.access.prepost.PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<FieldChangeBackfillReport>> backfillFieldChanges() {
+        return ResponseEntity.ok(ApiResponse.success(fieldChangeIndex.backfill(),
+                "Field change backfill completed"));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Live audit feed", description = "Server-Sent Events of newly persisted audit entries. Send Last-Event-ID (or lastEventId) to resume after a disconnect.")
+    @org.springframework.security.access.prepost.PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public SseEmitter streamLogs(
+            @RequestParam(required = false) String entityName,
+            @RequestParam(required = false) String action,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @RequestParam(required = false) Long lastEventId) {
+        return auditFeed.subscribe(entityName, action, lastEventIdHeader != null ? lastEventIdHeader : lastEventId);
     }
 
     @GetMapping("/student/{id}")
@@ -36,4 +111,34 @@ public class AuditController {
         return ResponseEntity
                 .ok(ApiResponse.success(auditService.getStudentLogs(id), "Student audit logs fetched successfully"));
     }
+
+    @PostMapping("/integrity/verify")
+    @Operation(summary = "Verify the audit hash chain", description = "Seals new audit rows into segments and checks them in parallel. By default only segments not yet found intact are checked; full=true re-verifies everything. The report includes rows/sec.")
+    @org.springframework.security.access.prepost.PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<AuditIntegrityReport>> verifyIntegrity(
+            @RequestParam(defaultValue = "false") boolean full) {
+        return ResponseEntity.ok(ApiResponse.success(integrityVerifier.verify(full), "Audit integrity verified"));
+    }
+
+    @GetMapping("/integrity/segments")
+    @Operation(summary = "Latest sealed audit segments with their Merkle roots, for anchoring outside the database")
+    @org.springframework.security.access.prepost.PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<AuditSegment>>> getSegments(@RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(integrityVerifier.latestSegments(limit),
+                "Audit segments fetched successfully"));
+    }
+
+    @PostMapping("/storage/archive")
+    @Operation(summary = "Archive old audit rows", description = "Moves sealed audit segments older than audit.archive.retention-days into compressed segment files. Runs daily on its own; archived rows stay visible through the audit APIs.")
+    @org.springframework.security.access.prepost.PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<AuditArchiveReport>> archiveStorage() {
+        return ResponseEntity.ok(ApiResponse.success(auditArchive.archive(), "Audit archiving completed"));
+    }
+
+    @PostMapping("/storage/migrate")
+    @Operation(summary = "Convert legacy full-snapshot audit rows to snapshot + delta storage")
+    @org.springframework.security.access.prepost.PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<AuditMigrationReport>> migrateStorage() {
+        return ResponseEntity.ok(ApiResponse.success(storageMigrator.migrate(), "Audit storage migrated successfully"));
+    }
 }
@@ -3,20 +3,35 @@ package com.auditready.studentsystem.controller;
 import com.auditready.studentsystem.dto.*;
 import com.auditready.studentsystem.entity.Role;
 import com.auditready.studentsystem.entity.User;
+import com.auditready.studentsystem.repository.StudentRepository;
 import com.auditready.studentsystem.repository.UserRepository;
 import com.auditready.studentsystem.security.JwtUtil;
+import com.auditready.studentsystem.security.LoginRateLimiter;
+import com.auditready.studentsystem.security.PasswordHashingExecutor;
+import com.auditready.studentsystem.security.TokenDenylist;
+import com.auditready.studentsystem.security.UserChangeMonitor;
+import com.auditready.studentsystem.service.UserProvisioningService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @RestController
 @RequestMapping("/api/v1/auth")
@@ -25,26 +40,102 @@ import org.springframework.web.bind.annotation.RestController;
 public class AuthController {
 
     private final UserRepository userRepository;
+    private final StudentRepository studentRepository;
     private final JwtUtil jwtUtil;
     private final PasswordEncoder passwordEncoder;
+    private final TokenDenylist tokenDenylist;
+    private final LoginRateLimiter loginRateLimiter;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final UserProvisioningService userProvisioningService;
 
     @PostMapping("/login")
     @Operation(summary = "Login and receive JWT")
-    public ResponseEntity<ApiResponse<AuthResponse>> login(@Valid @RequestBody AuthRequest request) {
+    public CompletableFuture<ResponseEntity<ApiResponse<AuthResponse>>> login(
+            @Valid @RequestBody AuthRequest request, HttpServletRequest httpRequest) {
         log.info("Login attempt for user: {}", request.username());
+        loginRateLimiter.acquire(request.username(), httpRequest.getRemoteAddr());
         User user = userRepository.findByUsername(request.username())
                 .orElseThrow(() -> new RuntimeException("Invalid username or password"));
 
-        if (!passwordEncoder.matches(request.password(), user.getPassword())) {
-            log.warn("Invalid password for user: {}", request.username());
-            throw new RuntimeException("Invalid username or password");
+        // BCrypt runs on the bounded hashing pool; the request thread is released meanwhile
+        return passwordHashingExecutor.matches(request.password(), user.getPassword())
+                .thenApply(matches -> {
+                    if (!matches) {
+                        log.warn("Invalid password for user: {}", request.username());
+                        throw new RuntimeException("Invalid username or password");
+                    }
+                    return ResponseEntity.ok(ApiResponse.success(issueTokens(user), "Login successful"));
+                });
+    }
+
+    @PostMapping("/refresh")
+    @Operation(summary = "Exchange a refresh token for a new access and refresh token")
+    public ResponseEntity<ApiResponse<AuthResponse>> refresh(@Valid @RequestBody RefreshRequest request) {
+        Claims claims = parseQuietly(request.refreshToken());
+        if (claims == null || !JwtUtil.TYPE_REFRESH.equals(claims.get("typ", String.class))) {
+            return unauthorized("Invalid refresh token");
+        }
+        User user = userRepository.findByUsername(claims.getSubject()).orElse(null);
+        if (user == null || changedSince(user, claims)) {
+            return unauthorized("Session expired, please log in again");
+        }
+        // Rotation: each refresh token is consumed exactly once, so a replayed one fails here
+        if (!tokenDenylist.revoke(claims.getId(), claims.getExpiration().getTime())) {
+            log.warn("Rejected reuse of refresh token for user: {}", user.getUsername());
+            return unauthorized("Invalid refresh token");
+        }
+        return ResponseEntity.ok(ApiResponse.success(issueTokens(user), "Token refreshed"));
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Revoke the current access token and, if given, the refresh token")
+    public ResponseEntity<ApiResponse<String>> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader,
+            @RequestBody(required = false) RefreshRequest request) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            revokeQuietly(authHeader.substring(7));
+        }
+        if (request != null && request.refreshToken() != null) {
+            revokeQuietly(request.refreshToken());
         }
+        return ResponseEntity.ok(ApiResponse.success(null, "Logged out successfully"));
+    }
 
-        String token = jwtUtil.generateToken(user.getUsername(), user.getRole().name());
-        long expiresAt = System.currentTimeMillis() + jwtUtil.getJwtExpiration();
-        AuthResponse authResponse = new AuthResponse(token, user.getUsername(), user.getRole().name(), expiresAt);
+    private AuthResponse issueTokens(User user) {
+        String role = user.getRole().name();
+        long now = System.currentTimeMillis();
+        String token = jwtUtil.generateToken(user.getUsername(), role, user.getStudentId());
+        String refreshToken = jwtUtil.generateRefreshToken(user.getUsername(), role);
+        return new AuthResponse(token, user.getUsername(), role, now + jwtUtil.getJwtExpiration(),
+                refreshToken, now + jwtUtil.getRefreshExpiration());
+    }
 
-        return ResponseEntity.ok(ApiResponse.success(authResponse, "Login successful"));
+    // Refresh tokens outlive the user change monitor's window, so compare against the row itself
+    private boolean changedSince(User user, Claims claims) {
+        if (user.getUpdatedAt() == null || claims.getIssuedAt() == null) {
+            return false;
+        }
+        return UserChangeMonitor.issuedBefore(claims.getIssuedAt(), user.getUpdatedAt());
+    }
+
+    private void revokeQuietly(String token) {
+        Claims claims = parseQuietly(token);
+        if (claims != null) {
+            tokenDenylist.revoke(claims.getId(), claims.getExpiration().getTime());
+        }
+    }
+
+    private Claims parseQuietly(String token) {
+        try {
+            Claims claims = jwtUtil.parseClaims(token);
+            return claims.getId() != null && claims.getExpiration() != null ? claims : null;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private <T> ResponseEntity<ApiResponse<T>> unauthorized(String message) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ApiResponse.error(message));
     }
 
     @PostMapping("/register")
@@ -55,17 +146,29 @@ public class AuthController {
             return ResponseEntity.badRequest().body(ApiResponse.error("Username already exists"));
         }
 
+        Role role = Role.valueOf(request.role().toUpperCase());
         User user = User.builder()
                 .username(request.username())
                 .password(passwordEncoder.encode(request.password()))
                 .email(request.email())
-                .role(Role.valueOf(request.role().toUpperCase()))
+                .role(role)
                 .build();
+        if (role == Role.STUDENT) {
+            studentRepository.findByEmail(request.email()).ifPresent(student -> user.setStudentId(student.getId()));
+        }
 
         userRepository.save(user);
         return ResponseEntity.ok(ApiResponse.success(null, "User registered successfully"));
     }
 
+    @PostMapping(value = "/register/bulk", consumes = "application/x-ndjson")
+    @Operation(summary = "Bulk provision users", description = "Streams NDJSON, one register request per line, and reports per-row errors and throughput")
+    @org.springframework.security.access.prepost.PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ImportReport>> registerBulk(HttpServletRequest request) throws IOException {
+        ImportReport report = userProvisioningService.provisionNdjson(request.getInputStream());
+        return ResponseEntity.ok(ApiResponse.success(report, "Provisioning completed"));
+    }
+
     @org.springframework.web.bind.annotation.GetMapping("/me")
     @Operation(summary = "Get current user profile")
     public ResponseEntity<ApiResponse<UserDetailsResponse>> getMe() {
@@ -1,18 +1,37 @@
 package com.auditready.studentsystem.controller;
 
 import com.auditready.studentsystem.dto.ApiResponse;
+import com.auditready.studentsystem.dto.CountMode;
+import com.auditready.studentsystem.dto.CursorPage;
+import com.auditready.studentsystem.dto.DepartmentStatistics;
+import com.auditready.studentsystem.dto.ImportReport;
+import com.auditready.studentsystem.dto.RankedStudent;
 import com.auditready.studentsystem.dto.StudentDto;
+import com.auditready.studentsystem.dto.StudentFilter;
+import com.auditready.studentsystem.dto.StudentSearchHit;
+import com.auditready.studentsystem.security.AuthenticatedUser;
+import com.auditready.studentsystem.service.StudentExportService;
+import com.auditready.studentsystem.service.StudentHistoryService;
+import com.auditready.studentsystem.service.StudentImportService;
+import com.auditready.studentsystem.service.StudentRankingService;
 import com.auditready.studentsystem.service.StudentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -22,34 +41,102 @@ import java.util.List;
 public class StudentController {
 
     private final StudentService studentService;
-    private final com.auditready.studentsystem.repository.UserRepository userRepository;
+    private final StudentHistoryService studentHistoryService;
+    private final StudentImportService studentImportService;
+    private final StudentExportService studentExportService;
+    private final StudentRankingService studentRankingService;
 
     @GetMapping
     @Operation(summary = "Get all students", description = "Returns a list of all students (ADMIN/STAFF only)")
     @org.springframework.security.access.prepost.PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     public ResponseEntity<ApiResponse<List<StudentDto>>> getAllStudents() {
-        return ResponseEntity.ok(ApiResponse.success(studentService.getAllStudents(), "Students fetched successfully"));
+        List<StudentDto> students = studentService.getAllStudents();
+        return ResponseEntity.ok()
+                .eTag(StudentETags.of(students))
+                .body(ApiResponse.success(students, "Students fetched successfully"));
     }
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get student by ID")
+    @Operation(summary = "Get student by ID", description = "With asOf, returns the student as it was at that instant, rebuilt from audit history. Current records carry an ETag and honour If-None-Match")
     @org.springframework.security.access.prepost.PreAuthorize("hasAnyRole('ADMIN', 'STAFF') or (hasRole('STUDENT') and @securityService.isOwnProfile(#id))")
-    public ResponseEntity<ApiResponse<StudentDto>> getStudentById(@PathVariable Long id) {
-        return ResponseEntity
-                .ok(ApiResponse.success(studentService.getStudentById(id), "Student fetched successfully"));
+    public ResponseEntity<ApiResponse<StudentDto>> getStudentById(@PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        if (asOf != null) {
+            return ResponseEntity.ok(ApiResponse.success(studentHistoryService.getStudentAsOf(id, asOf),
+                    "Student history fetched successfully"));
+        }
+        StudentDto student = studentService.getStudentById(id);
+        // Spring answers a matching If-None-Match with 304 before writing the body. There is
+        // no Last-Modified: updated_at has whole-second precision and would miss a second
+        // update within the same second, the version does not.
+        return ResponseEntity.ok()
+                .eTag(StudentETags.of(student))
+                .body(ApiResponse.success(student, "Student fetched successfully"));
+    }
+
+    @GetMapping("/department/{department}/as-of")
+    @Operation(summary = "Get all students of a department as they were at a point in time")
+    @org.springframework.security.access.prepost.PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<ApiResponse<List<StudentDto>>> getDepartmentAsOf(@PathVariable String department,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        return ResponseEntity.ok(ApiResponse.success(studentHistoryService.getDepartmentAsOf(department, asOf),
+                "Department history fetched successfully"));
+    }
+
+    @GetMapping("/statistics")
+    @Operation(summary = "Per-department statistics", description = "Student counts, average/min/max CGPA and year distribution per department")
+    @org.springframework.security.access.prepost.PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<ApiResponse<List<DepartmentStatistics>>> getStatistics() {
+        return ResponseEntity.ok(ApiResponse.success(studentService.getDepartmentStatistics(),
+                "Statistics fetched successfully"));
+    }
+
+    @GetMapping("/ranking/top")
+    @Operation(summary = "Top students by CGPA", description = "Global leaderboard, or within one department; tied CGPAs share a rank")
+    @org.springframework.security.access.prepost.PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<ApiResponse<List<RankedStudent>>> getTopRanked(
+            @RequestParam(required = false) String department,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(studentRankingService.getTop(department, limit),
+                "Ranking fetched successfully"));
+    }
+
+    @GetMapping("/ranking/percentile")
+    @Operation(summary = "Students within a CGPA percentile band", description = "For example from=90&to=95; global or within one department")
+    @org.springframework.security.access.prepost.PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<ApiResponse<List<RankedStudent>>> getPercentileRange(
+            @RequestParam(required = false) String department,
+            @RequestParam double from,
+            @RequestParam double to,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(
+                studentRankingService.getPercentileRange(department, from, to, limit),
+                "Ranking fetched successfully"));
+    }
+
+    @GetMapping("/ranking/{id}")
+    @Operation(summary = "CGPA rank of a student", description = "Among all students, or within the student's department")
+    @org.springframework.security.access.prepost.PreAuthorize("hasAnyRole('ADMIN', 'STAFF') or (hasRole('STUDENT') and @securityService.isOwnProfile(#id))")
+    public ResponseEntity<ApiResponse<RankedStudent>> getRank(@PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean withinDepartment) {
+        return ResponseEntity.ok(ApiResponse.success(studentRankingService.getRank(id, withinDepartment),
+                "Rank fetched successfully"));
     }
 
     @GetMapping("/my-profile")
     @Operation(summary = "Get current student profile")
     @org.springframework.security.access.prepost.PreAuthorize("hasRole('STUDENT')")
     public ResponseEntity<ApiResponse<StudentDto>> getMyProfile() {
-        String username = org.springframework.security.core.context.SecurityContextHolder.getContext()
-                .getAuthentication().getName();
-        com.auditready.studentsystem.entity.User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return ResponseEntity
-                .ok(ApiResponse.success(studentService.getStudentByEmail(user.getEmail()),
-                        "Profile fetched successfully"));
+        org.springframework.security.core.Authentication authentication = org.springframework.security.core.context.SecurityContextHolder
+                .getContext().getAuthentication();
+        // Linked id from the token hits the read cache; otherwise one join query resolves the link
+        StudentDto profile = authentication.getPrincipal() instanceof AuthenticatedUser user
+                && user.getStudentId() != null
+                        ? studentService.getStudentById(user.getStudentId())
+                        : studentService.getStudentForUser(authentication.getName());
+        return ResponseEntity.ok()
+                .eTag(StudentETags.of(profile))
+                .body(ApiResponse.success(profile, "Profile fetched successfully"));
     }
 
     @PostMapping
@@ -61,13 +148,47 @@ public class StudentController {
                 HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson" })
+    @Operation(summary = "Bulk import students", description = "Streams a CSV file (with header row) or NDJSON, one student per line, and reports per-row errors")
+    @org.springframework.security.access.prepost.PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ImportReport>> importStudents(HttpServletRequest request) throws IOException {
+        ImportReport report = request.getContentType().startsWith("text/csv")
+                ? studentImportService.importCsv(request.getInputStream())
+                : studentImportService.importNdjson(request.getInputStream());
+        return ResponseEntity.ok(ApiResponse.success(report, "Import completed"));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Stream all students as CSV or NDJSON", description = "fields is an optional comma-separated list of student properties to include")
+    @org.springframework.security.access.prepost.PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<StreamingResponseBody> exportStudents(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) String fields) {
+        List<String> selected = studentExportService.resolveFields(fields);
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+        StreamingResponseBody body = csv
+                ? output -> studentExportService.exportCsv(selected, output)
+                : output -> studentExportService.exportNdjson(selected, output);
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv") : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"students." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+
     @PutMapping("/{id}")
-    @Operation(summary = "Update an existing student")
+    @Operation(summary = "Update an existing student", description = "With If-Match set to the ETag last read, fails with 412 if the student changed since")
     @org.springframework.security.access.prepost.PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     public ResponseEntity<ApiResponse<StudentDto>> updateStudent(@PathVariable Long id,
-            @Valid @RequestBody StudentDto studentDto) {
-        return ResponseEntity
-                .ok(ApiResponse.success(studentService.updateStudent(id, studentDto), "Student updated successfully"));
+            @Valid @RequestBody StudentDto studentDto,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        StudentDto updated = studentService.updateStudent(id, studentDto, StudentETags.expectedVersion(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(StudentETags.of(updated))
+                .body(ApiResponse.success(updated, "Student updated successfully"));
     }
 
     @DeleteMapping("/{id}")
@@ -82,19 +203,62 @@ public class StudentController {
     @Operation(summary = "Get students with pagination")
     @org.springframework.security.access.prepost.PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     public ResponseEntity<ApiResponse<Page<StudentDto>>> getStudentsWithPagination(Pageable pageable) {
-        return ResponseEntity
-                .ok(ApiResponse.success(studentService.getAllStudents(pageable), "Students fetched successfully"));
+        Page<StudentDto> page = studentService.getAllStudents(pageable);
+        return ResponseEntity.ok()
+                .eTag(StudentETags.of(page))
+                .body(ApiResponse.success(page, "Students fetched successfully"));
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search students with filters and pagination")
+    @Operation(summary = "Search students with filters and pagination", description = "Any combination of name/email substring, department, year and an inclusive minCgpa/maxCgpa range")
     @org.springframework.security.access.prepost.PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
     public ResponseEntity<ApiResponse<Page<StudentDto>>> searchStudents(
             @RequestParam(required = false) String name,
             @RequestParam(required = false) String email,
+            @RequestParam(required = false) String department,
+            @RequestParam(required = false) Integer year,
+            @RequestParam(required = false) Double minCgpa,
+            @RequestParam(required = false) Double maxCgpa,
             Pageable pageable) {
-        return ResponseEntity.ok(ApiResponse.success(studentService.searchStudents(name, email, pageable),
+        StudentFilter filter = new StudentFilter(name, email, department, year, minCgpa, maxCgpa);
+        Page<StudentDto> page = studentService.searchStudents(filter, pageable);
+        return ResponseEntity.ok()
+                .eTag(StudentETags.of(page))
+                .body(ApiResponse.success(page, "Search results fetched successfully"));
+    }
+
+    @GetMapping("/scroll")
+    @Operation(summary = "Get students with keyset pagination", description = "Ordered by id. Pass nextCursor from the previous page as cursor; count is NONE, APPROXIMATE or EXACT")
+    @org.springframework.security.access.prepost.PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<ApiResponse<CursorPage<StudentDto>>> scrollStudents(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "NONE") CountMode count) {
+        return ResponseEntity.ok(ApiResponse.success(studentService.scrollStudents(null, null, cursor, size, count),
+                "Students fetched successfully"));
+    }
+
+    @GetMapping("/search/scroll")
+    @Operation(summary = "Search students with keyset pagination")
+    @org.springframework.security.access.prepost.PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<ApiResponse<CursorPage<StudentDto>>> scrollSearchStudents(
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "NONE") CountMode count) {
+        return ResponseEntity.ok(ApiResponse.success(studentService.scrollStudents(name, email, cursor, size, count),
                 "Search results fetched successfully"));
     }
 
+    @GetMapping("/search/quick")
+    @Operation(summary = "Ranked substring/prefix search over name, email and department", description = "Served from the in-memory search index; fields optionally restricts to NAME, EMAIL and/or DEPARTMENT")
+    @org.springframework.security.access.prepost.PreAuthorize("hasAnyRole('ADMIN', 'STAFF')")
+    public ResponseEntity<ApiResponse<List<StudentSearchHit>>> quickSearch(
+            @RequestParam String q,
+            @RequestParam(required = false) String fields,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(ApiResponse.success(studentService.quickSearch(q, fields, limit),
+                "Search results fetched successfully"));
+    }
 }
@@ -0,0 +1,70 @@
+package com.auditready.studentsystem.controller;
+
+import com.auditready.studentsystem.dto.StudentDto;
+import com.auditready.studentsystem.exception.PreconditionFailedException;
+import org.springframework.data.domain.Page;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Entity tags for student representations, derived from the {@code @Version} column rather
+ * than the serialized body, so a conditional GET is answered before any JSON is written.
+ * A single student's tag is strong: each version is exactly one state of the student, and
+ * the tag is what {@code If-Match} compares against on update. List and page tags are weak
+ * digests of the ids and versions they contain.
+ */
+final class StudentETags {
+
+    private StudentETags() {
+    }
+
+    static String of(StudentDto student) {
+        return "\"" + student.version() + "\"";
+    }
+
+    static String of(List<StudentDto> students) {
+        return digest(students, new StringBuilder());
+    }
+
+    // Page metadata is part of the tag so inserts and deletes elsewhere change it too
+    static String of(Page<StudentDto> page) {
+        StringBuilder key = new StringBuilder()
+                .append(page.getNumber()).append('/')
+                .append(page.getSize()).append('/')
+                .append(page.getTotalElements()).append(';');
+        return digest(page.getContent(), key);
+    }
+
+    /**
+     * Parses an {@code If-Match} header into the expected version; {@code null} when absent
+     * or {@code *}. If-Match uses strong comparison (RFC 9110), so a weak tag never matches.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (!StringUtils.hasText(ifMatch) || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            throw new PreconditionFailedException("If-Match requires a strong entity tag");
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.valueOf(tag);
+        } catch (NumberFormatException e) {
+            // A tag this server never issued cannot match the current state
+            throw new PreconditionFailedException("If-Match does not match any version of this student");
+        }
+    }
+
+    private static String digest(List<StudentDto> students, StringBuilder key) {
+        for (StudentDto student : students) {
+            key.append(student.id()).append(':').append(student.version()).append(',');
+        }
+        return "W/\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -0,0 +1,9 @@
+package com.auditready.studentsystem.dto;
+
+public record AuditArchiveReport(
+        int segmentsArchived,
+        long rowsArchived,
+        long fileBytes,
+        Long blockedBySegment,
+        long elapsedMs) {
+}
@@ -0,0 +1,20 @@
+package com.auditready.studentsystem.dto;
+
+import java.util.List;
+
+public record AuditIntegrityReport(
+        boolean intact,
+        int segments,
+        int segmentsVerified,
+        long rowsVerified,
+        long violationCount,
+        List<Violation> violations,
+        long elapsedMs,
+        double rowsPerSecond) {
+
+    public record Violation(
+            Long segmentId,
+            Long auditLogId,
+            String reason) {
+    }
+}
@@ -0,0 +1,12 @@
+package com.auditready.studentsystem.dto;
+
+import java.time.LocalDateTime;
+
+public record AuditLogFilter(
+        String entityName,
+        Long entityId,
+        String action,
+        String changedBy,
+        LocalDateTime from,
+        LocalDateTime to) {
+}
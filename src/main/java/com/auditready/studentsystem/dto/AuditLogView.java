@@ -0,0 +1,21 @@
+package com.auditready.studentsystem.dto;
+
+import java.time.LocalDateTime;
+
+public record AuditLogView(
+        Long id,
+        String action,
+        String entityName,
+        Long entityId,
+        String changedBy,
+        LocalDateTime changedAt,
+        String diff,
+        String oldValues,
+        String newValues) {
+
+    // Used by the list projection, which never reads the snapshot columns
+    public AuditLogView(Long id, String action, String entityName, Long entityId, String changedBy,
+            LocalDateTime changedAt, String diff) {
+        this(id, action, entityName, entityId, changedBy, changedAt, diff, null, null);
+    }
+}
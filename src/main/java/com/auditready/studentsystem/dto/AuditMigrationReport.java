@@ -0,0 +1,10 @@
+package com.auditready.studentsystem.dto;
+
+public record AuditMigrationReport(
+        int entities,
+        int rowsConverted,
+        int snapshots,
+        int deltas,
+        long bytesBefore,
+        long bytesAfter) {
+}
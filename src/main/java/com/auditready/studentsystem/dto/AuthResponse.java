@@ -4,5 +4,7 @@ public record AuthResponse(
                 String token,
                 String username,
                 String role,
-                Long expiresAt) {
+                Long expiresAt,
+                String refreshToken,
+                Long refreshExpiresAt) {
 }
@@ -0,0 +1,7 @@
+package com.auditready.studentsystem.dto;
+
+public enum CountMode {
+    NONE,
+    APPROXIMATE,
+    EXACT
+}
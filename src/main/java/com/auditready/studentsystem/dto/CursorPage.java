@@ -0,0 +1,37 @@
+package com.auditready.studentsystem.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+public record CursorPage<T>(
+        List<T> items,
+        String nextCursor,
+        boolean hasMore,
+        Long total) {
+
+    public CursorPage(List<T> items, String nextCursor, boolean hasMore) {
+        this(items, nextCursor, hasMore, null);
+    }
+
+    // Cursors are opaque to clients: the key values of the last row, '|'-joined and Base64url encoded
+    public static String encodeCursor(Object... keys) {
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < keys.length; i++) {
+            raw.append(i == 0 ? "" : "|").append(keys[i]);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String[] decodeCursor(String cursor, int parts) {
+        try {
+            String[] keys = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", -1);
+            if (keys.length != parts) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return keys;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.auditready.studentsystem.dto;
+
+import java.util.Map;
+
+public record DepartmentStatistics(
+        String department,
+        long students,
+        Double averageCgpa,
+        Double minCgpa,
+        Double maxCgpa,
+        Map<Integer, Long> yearDistribution) {
+}
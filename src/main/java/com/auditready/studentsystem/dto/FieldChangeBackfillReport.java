@@ -0,0 +1,8 @@
+package com.auditready.studentsystem.dto;
+
+public record FieldChangeBackfillReport(
+        long auditRowsScanned,
+        long fieldChangesWritten,
+        long unparseable,
+        long elapsedMs) {
+}
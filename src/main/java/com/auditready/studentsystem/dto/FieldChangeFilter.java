@@ -0,0 +1,13 @@
+package com.auditready.studentsystem.dto;
+
+import java.time.LocalDateTime;
+
+public record FieldChangeFilter(
+        String entityName,
+        Long entityId,
+        String field,
+        String scope,
+        String changedBy,
+        LocalDateTime from,
+        LocalDateTime to) {
+}
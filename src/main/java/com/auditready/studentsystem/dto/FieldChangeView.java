@@ -0,0 +1,16 @@
+package com.auditready.studentsystem.dto;
+
+import java.time.LocalDateTime;
+
+public record FieldChangeView(
+        Long id,
+        Long auditLogId,
+        String entityName,
+        Long entityId,
+        String scope,
+        String field,
+        String oldValue,
+        String newValue,
+        String changedBy,
+        LocalDateTime changedAt) {
+}
@@ -0,0 +1,18 @@
+package com.auditready.studentsystem.dto;
+
+import java.util.List;
+
+public record ImportReport(
+        long totalRows,
+        long imported,
+        long failed,
+        List<RowError> errors,
+        boolean errorsTruncated,
+        long elapsedMs,
+        double rowsPerSecond) {
+
+    public record RowError(
+            long line,
+            String message) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.auditready.studentsystem.dto;
+
+public record RankedStudent(
+        long rank,
+        Long id,
+        String name,
+        String department,
+        Double cgpa,
+        long outOf,
+        double percentile) {
+}
@@ -0,0 +1,7 @@
+package com.auditready.studentsystem.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshRequest(
+        @NotBlank(message = "Refresh token is required") String refreshToken) {
+}
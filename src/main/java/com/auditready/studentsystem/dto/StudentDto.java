@@ -22,5 +22,6 @@ public record StudentDto(
 
         LocalDateTime createdAt,
         LocalDateTime updatedAt,
-        String createdBy) {
+        String createdBy,
+        Long version) {
 }
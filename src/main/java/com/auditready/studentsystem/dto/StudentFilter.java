@@ -0,0 +1,14 @@
+package com.auditready.studentsystem.dto;
+
+/**
+ * Optional student search criteria; {@code null} or blank fields are ignored. Name and email
+ * match as case-insensitive substrings, department and year exactly, CGPA as an inclusive range.
+ */
+public record StudentFilter(
+        String name,
+        String email,
+        String department,
+        Integer year,
+        Double minCgpa,
+        Double maxCgpa) {
+}
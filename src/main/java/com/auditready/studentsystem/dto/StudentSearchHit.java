@@ -0,0 +1,9 @@
+package com.auditready.studentsystem.dto;
+
+public record StudentSearchHit(
+        Long id,
+        String name,
+        String email,
+        String department,
+        double score) {
+}
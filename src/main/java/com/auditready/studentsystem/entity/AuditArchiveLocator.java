@@ -0,0 +1,33 @@
+package com.auditready.studentsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Records that an archived audit segment holds rows of an entity, so per-entity history
+ * only opens the segment files that matter.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "audit_archive_locators", indexes = {
+        @Index(name = "idx_archive_locator_entity", columnList = "entity_name, entity_id, segment_id")
+})
+public class AuditArchiveLocator {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long segmentId;
+
+    @Column(nullable = false)
+    private String entityName;
+
+    @Column(nullable = false)
+    private Long entityId;
+}
@@ -0,0 +1,38 @@
+package com.auditready.studentsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Audit record the writer could not insert because the database rejected it (for example
+ * a value too long for its column). Kept with the error so it can be fixed and replayed
+ * instead of blocking every record behind it.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "audit_dead_letters", indexes = {
+        @Index(name = "idx_audit_dead_letters_journal_seq", columnList = "journal_seq", unique = true)
+})
+public class AuditDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long journalSeq;
+
+    @Column(nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String record; // the AuditRecord as JSON
+
+    @Column(nullable = false, length = 1000)
+    private String error;
+
+    @Column(nullable = false)
+    private LocalDateTime failedAt;
+}
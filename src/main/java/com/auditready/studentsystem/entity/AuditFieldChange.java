@@ -0,0 +1,55 @@
+package com.auditready.studentsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * One changed field of an UPDATE audit row, so field-level questions are answered from
+ * an index instead of scanning {@code audit_logs.diff}. Values are stored as text.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "audit_field_changes", indexes = {
+        @Index(name = "idx_afc_field", columnList = "entity_name, field_name, changed_at, id"),
+        @Index(name = "idx_afc_scope_field", columnList = "entity_name, entity_scope, field_name, changed_at, id"),
+        @Index(name = "idx_afc_entity", columnList = "entity_name, entity_id, changed_at, id"),
+        @Index(name = "idx_afc_changed_by", columnList = "changed_by, changed_at, id"),
+        @Index(name = "idx_afc_audit_log", columnList = "audit_log_id")
+})
+public class AuditFieldChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long auditLogId;
+
+    @Column(nullable = false)
+    private String entityName;
+
+    private Long entityId;
+
+    @Column(length = 100)
+    private String entityScope; // e.g. the student's department after the change
+
+    @Column(nullable = false, length = 64)
+    private String fieldName;
+
+    @Column(columnDefinition = "TEXT")
+    private String oldValue;
+
+    @Column(columnDefinition = "TEXT")
+    private String newValue;
+
+    @Column(nullable = false)
+    private String changedBy;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+}
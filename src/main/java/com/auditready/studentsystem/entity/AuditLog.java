@@ -1,5 +1,6 @@
 package com.auditready.studentsystem.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDateTime;
@@ -10,7 +11,13 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = {
+        @Index(name = "idx_audit_changed_at_id", columnList = "changed_at, id"),
+        @Index(name = "idx_audit_entity", columnList = "entity_name, entity_id, changed_at, id"),
+        @Index(name = "idx_audit_action", columnList = "action, changed_at, id"),
+        @Index(name = "idx_audit_changed_by", columnList = "changed_by, changed_at, id"),
+        @Index(name = "idx_audit_journal_seq", columnList = "journal_seq", unique = true)
+})
 public class AuditLog {
 
     @Id
@@ -39,4 +46,18 @@ public class AuditLog {
 
     @Column(columnDefinition = "TEXT")
     private String diff; // Readable summary of changes
+
+    @JsonIgnore
+    @Column(length = 16)
+    private String payloadType; // SNAPSHOT, DELTA; null for rows that store full old/new values
+
+    @JsonIgnore
+    private Boolean compressed;
+
+    @JsonIgnore
+    @Column(length = 64)
+    private String rowHash; // hex SHA-256 over the previous row's hash and this row's content
+
+    @JsonIgnore
+    private Long journalSeq; // journal sequence number, so a replayed record is never written twice
 }
@@ -0,0 +1,59 @@
+package com.auditready.studentsystem.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * A sealed run of consecutive audit rows: the chain hash it starts from and ends with,
+ * plus the Merkle root over its row hashes. Segments tile the {@code audit_logs} id
+ * space without gaps, so every row belongs to exactly one segment once sealed. Archived
+ * segments live in a segment file instead of {@code audit_logs}.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "audit_segments", indexes = {
+        @Index(name = "idx_audit_segments_first_log_id", columnList = "first_log_id", unique = true),
+        @Index(name = "idx_audit_segments_last_log_id", columnList = "last_log_id")
+})
+public class AuditSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long firstLogId; // previous segment's lastLogId + 1
+
+    @Column(nullable = false)
+    private Long lastLogId;
+
+    @Column(nullable = false)
+    private Integer rowCount;
+
+    private LocalDateTime firstChangedAt;
+
+    private LocalDateTime lastChangedAt;
+
+    @Column(nullable = false, length = 64)
+    private String prevHash;
+
+    @Column(nullable = false, length = 64)
+    private String endHash;
+
+    @Column(nullable = false, length = 64)
+    private String merkleRoot;
+
+    @Column(nullable = false)
+    private LocalDateTime sealedAt;
+
+    private LocalDateTime verifiedAt; // last verification that found the segment intact
+
+    private String archiveFile; // file name inside the archive directory; null while the rows are in audit_logs
+
+    private LocalDateTime archivedAt;
+}
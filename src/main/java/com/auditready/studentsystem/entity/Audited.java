@@ -0,0 +1,21 @@
+package com.auditready.studentsystem.entity;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Opts an {@link Auditable} entity into the audit log. Inserts, updates and deletes are
+ * recorded from Hibernate's flush events, so services need no audit calls of their own.
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Audited {
+
+    // Entity name in the audit log; defaults to the upper-cased simple class name
+    String value() default "";
+
+    // Properties recorded as changed without their values, e.g. password hashes
+    String[] redact() default {};
+}
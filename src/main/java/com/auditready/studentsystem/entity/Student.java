@@ -10,7 +10,13 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "students")
+@Audited("STUDENT")
+// Equality columns lead and the CGPA range comes last, covering the supported filter combinations
+@Table(name = "students", indexes = {
+        @Index(name = "idx_students_department_year_cgpa", columnList = "department, year, cgpa"),
+        @Index(name = "idx_students_year_cgpa", columnList = "year, cgpa"),
+        @Index(name = "idx_students_cgpa", columnList = "cgpa")
+})
 public class Student extends Auditable {
 
     @Id
@@ -42,4 +48,9 @@ public class Student extends Auditable {
     @DecimalMin(value = "0.0", inclusive = true, message = "CGPA must be at least 0.0")
     @DecimalMax(value = "10.0", inclusive = true, message = "CGPA must not be greater than 10.0")
     private Double cgpa;
+
+    // Optimistic lock, exposed to clients as the ETag; rows that predate the column start at 0
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
 }
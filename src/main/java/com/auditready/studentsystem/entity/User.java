@@ -9,7 +9,11 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "users")
+@Audited(value = "USER", redact = "password")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_updated_at", columnList = "updated_at"),
+        @Index(name = "idx_users_student_id", columnList = "student_id", unique = true)
+})
 public class User extends Auditable {
 
     @Id
@@ -29,4 +33,8 @@ public class User extends Auditable {
     @Column(nullable = false)
     private Role role;
 
+    // Student record owned by this account (STUDENT role only); a plain id so it can travel in the token
+    @Column(name = "student_id")
+    private Long studentId;
+
 }
@@ -0,0 +1,29 @@
+package com.auditready.studentsystem.event;
+
+import java.util.Arrays;
+
+/**
+ * Published while an {@code @Audited} entity's update is flushed, with the state Hibernate
+ * loaded it with, so write paths can describe the change without copying the entity before
+ * modifying it. Delivered synchronously inside the flushing transaction.
+ *
+ * @param entity     the updated entity, already carrying its new state and version
+ * @param properties Hibernate's property names, indexed like {@code oldState}
+ * @param oldState   property values before the update
+ */
+public record AuditedEntityUpdatedEvent(
+        Object entity,
+        String[] properties,
+        Object[] oldState) {
+
+    /**
+     * Value {@code property} had before the update.
+     */
+    public Object oldValue(String property) {
+        int index = Arrays.asList(properties).indexOf(property);
+        if (index < 0) {
+            throw new IllegalArgumentException("Unknown property: " + property);
+        }
+        return oldState[index];
+    }
+}
@@ -0,0 +1,35 @@
+package com.auditready.studentsystem.event;
+
+import com.auditready.studentsystem.dto.StudentDto;
+
+/**
+ * Published by student write paths. Listeners that maintain derived, in-memory views use
+ * {@code @TransactionalEventListener} so they only see committed changes.
+ *
+ * @param before state before the change, {@code null} for CREATE
+ * @param after  state after the change, {@code null} for DELETE
+ */
+public record StudentChangedEvent(
+        ChangeType type,
+        Long studentId,
+        StudentDto before,
+        StudentDto after) {
+
+    public enum ChangeType {
+        CREATE,
+        UPDATE,
+        DELETE
+    }
+
+    public static StudentChangedEvent created(StudentDto after) {
+        return new StudentChangedEvent(ChangeType.CREATE, after.id(), null, after);
+    }
+
+    public static StudentChangedEvent updated(StudentDto before, StudentDto after) {
+        return new StudentChangedEvent(ChangeType.UPDATE, after.id(), before, after);
+    }
+
+    public static StudentChangedEvent deleted(StudentDto before) {
+        return new StudentChangedEvent(ChangeType.DELETE, before.id(), before, null);
+    }
+}
@@ -0,0 +1,11 @@
+package com.auditready.studentsystem.exception;
+
+/**
+ * The client's {@code If-Match} version no longer matches the stored resource; mapped to
+ * 412 Precondition Failed.
+ */
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -3,11 +3,14 @@ package com.auditready.studentsystem.mapper;
 import com.auditready.studentsystem.dto.StudentDto;
 import com.auditready.studentsystem.entity.Student;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
 
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
 public interface StudentMapper {
     StudentDto toDto(Student student);
 
+    // New students always start at the initial version
+    @Mapping(target = "version", ignore = true)
     Student toEntity(StudentDto studentDto);
 }
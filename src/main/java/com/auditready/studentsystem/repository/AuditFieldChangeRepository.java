@@ -0,0 +1,8 @@
+package com.auditready.studentsystem.repository;
+
+import com.auditready.studentsystem.entity.AuditFieldChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface AuditFieldChangeRepository extends JpaRepository<AuditFieldChange, Long>,
+        AuditFieldChangeRepositoryCustom {
+}
@@ -0,0 +1,17 @@
+package com.auditready.studentsystem.repository;
+
+import com.auditready.studentsystem.dto.FieldChangeFilter;
+import com.auditready.studentsystem.dto.FieldChangeView;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AuditFieldChangeRepositoryCustom {
+
+    /**
+     * Keyset query ordered by {@code (changedAt, id)} descending. Rows strictly after the
+     * cursor position are returned; pass {@code null} cursor values for the first page.
+     */
+    List<FieldChangeView> findPage(FieldChangeFilter filter, LocalDateTime cursorChangedAt, Long cursorId,
+            int limit);
+}
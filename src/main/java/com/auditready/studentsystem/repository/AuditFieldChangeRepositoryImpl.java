@@ -0,0 +1,70 @@
+package com.auditready.studentsystem.repository;
+
+import com.auditready.studentsystem.dto.FieldChangeFilter;
+import com.auditready.studentsystem.dto.FieldChangeView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class AuditFieldChangeRepositoryImpl implements AuditFieldChangeRepositoryCustom {
+
+    private static final String SELECT = "select new com.auditready.studentsystem.dto.FieldChangeView("
+            + "f.id, f.auditLogId, f.entityName, f.entityId, f.entityScope, f.fieldName, f.oldValue, f.newValue, "
+            + "f.changedBy, f.changedAt)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<FieldChangeView> findPage(FieldChangeFilter filter, LocalDateTime cursorChangedAt, Long cursorId,
+            int limit) {
+        StringBuilder jpql = new StringBuilder(SELECT).append(" from AuditFieldChange f where 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+
+        if (StringUtils.hasText(filter.entityName())) {
+            jpql.append(" and f.entityName = :entityName");
+            params.put("entityName", filter.entityName());
+        }
+        if (filter.entityId() != null) {
+            jpql.append(" and f.entityId = :entityId");
+            params.put("entityId", filter.entityId());
+        }
+        if (StringUtils.hasText(filter.scope())) {
+            jpql.append(" and f.entityScope = :scope");
+            params.put("scope", filter.scope());
+        }
+        if (StringUtils.hasText(filter.field())) {
+            jpql.append(" and f.fieldName = :field");
+            params.put("field", filter.field());
+        }
+        if (StringUtils.hasText(filter.changedBy())) {
+            jpql.append(" and f.changedBy = :changedBy");
+            params.put("changedBy", filter.changedBy());
+        }
+        if (filter.from() != null) {
+            jpql.append(" and f.changedAt >= :from");
+            params.put("from", filter.from());
+        }
+        if (filter.to() != null) {
+            jpql.append(" and f.changedAt < :to");
+            params.put("to", filter.to());
+        }
+        if (cursorChangedAt != null && cursorId != null) {
+            jpql.append(" and (f.changedAt < :cursorChangedAt"
+                    + " or (f.changedAt = :cursorChangedAt and f.id < :cursorId))");
+            params.put("cursorChangedAt", cursorChangedAt);
+            params.put("cursorId", cursorId);
+        }
+        jpql.append(" order by f.changedAt desc, f.id desc");
+
+        TypedQuery<FieldChangeView> query = entityManager.createQuery(jpql.toString(), FieldChangeView.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -1,13 +1,48 @@
 package com.auditready.studentsystem.repository;
 
+import com.auditready.studentsystem.dto.AuditLogView;
 import com.auditready.studentsystem.entity.AuditLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
-public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
-    List<AuditLog> findByEntityNameAndEntityIdOrderByChangedAtDesc(String entityName, Long entityId);
+public interface AuditLogRepository extends JpaRepository<AuditLog, Long>, AuditLogRepositoryCustom {
+    List<AuditLog> findByEntityNameAndEntityIdOrderByChangedAtDescIdDesc(String entityName, Long entityId);
+
+    // Live feed resume after a gap longer than the in-memory replay buffer
+    @Query("select new com.auditready.studentsystem.dto.AuditLogView(a.id, a.action, a.entityName, a.entityId,"
+            + " a.changedBy, a.changedAt, a.diff) from AuditLog a where a.id > :afterId order by a.id asc")
+    List<AuditLogView> findSummariesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("select distinct a.entityName, a.entityId from AuditLog a where a.payloadType is null and a.entityId is not null")
+    List<Object[]> findLegacyEntityKeys();
+
+    // Rows that carry full state (snapshots and legacy rows), newest first
+    @Query("select a from AuditLog a where a.entityName = :entityName and a.entityId = :entityId"
+            + " and a.changedAt <= :asOf and (a.payloadType is null or a.payloadType = 'SNAPSHOT')"
+            + " order by a.changedAt desc, a.id desc")
+    List<AuditLog> findCheckpoints(@Param("entityName") String entityName, @Param("entityId") Long entityId,
+            @Param("asOf") LocalDateTime asOf, Pageable pageable);
+
+    @Query("select a from AuditLog a where a.entityName = :entityName and a.entityId = :entityId"
+            + " and a.changedAt <= :asOf"
+            + " and (a.changedAt > :afterChangedAt or (a.changedAt = :afterChangedAt and a.id > :afterId))"
+            + " order by a.changedAt asc, a.id asc")
+    List<AuditLog> findChangesAfter(@Param("entityName") String entityName, @Param("entityId") Long entityId,
+            @Param("afterChangedAt") LocalDateTime afterChangedAt, @Param("afterId") Long afterId,
+            @Param("asOf") LocalDateTime asOf);
+
+    @Query("select a.id from AuditLog a where a.entityName = :entityName and a.entityId = :entityId"
+            + " and a.changedAt <= :asOf order by a.changedAt desc, a.id desc")
+    List<Long> findLatestIdAsOf(@Param("entityName") String entityName, @Param("entityId") Long entityId,
+            @Param("asOf") LocalDateTime asOf, Pageable pageable);
 
-    List<AuditLog> findAllByOrderByChangedAtDesc();
+    @Query("select distinct a.entityId from AuditLog a where a.entityName = :entityName and a.changedAt <= :asOf")
+    List<Long> findEntityIdsChangedUpTo(@Param("entityName") String entityName, @Param("asOf") LocalDateTime asOf);
 }
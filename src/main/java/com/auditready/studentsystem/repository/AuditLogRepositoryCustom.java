@@ -0,0 +1,17 @@
+package com.auditready.studentsystem.repository;
+
+import com.auditready.studentsystem.dto.AuditLogFilter;
+import com.auditready.studentsystem.dto.AuditLogView;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface AuditLogRepositoryCustom {
+
+    /**
+     * Keyset query ordered by {@code (changedAt, id)} descending. Rows strictly after the
+     * cursor position are returned; pass {@code null} cursor values for the first page.
+     */
+    List<AuditLogView> findPage(AuditLogFilter filter, LocalDateTime cursorChangedAt, Long cursorId, int limit,
+            boolean includeValues);
+}
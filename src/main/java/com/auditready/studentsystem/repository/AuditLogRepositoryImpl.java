@@ -0,0 +1,68 @@
+package com.auditready.studentsystem.repository;
+
+import com.auditready.studentsystem.dto.AuditLogFilter;
+import com.auditready.studentsystem.dto.AuditLogView;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.util.StringUtils;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class AuditLogRepositoryImpl implements AuditLogRepositoryCustom {
+
+    private static final String SUMMARY_SELECT = "select new com.auditready.studentsystem.dto.AuditLogView("
+            + "a.id, a.action, a.entityName, a.entityId, a.changedBy, a.changedAt, a.diff)";
+    private static final String FULL_SELECT = "select new com.auditready.studentsystem.dto.AuditLogView("
+            + "a.id, a.action, a.entityName, a.entityId, a.changedBy, a.changedAt, a.diff, a.oldValues, a.newValues)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<AuditLogView> findPage(AuditLogFilter filter, LocalDateTime cursorChangedAt, Long cursorId,
+            int limit, boolean includeValues) {
+        StringBuilder jpql = new StringBuilder(includeValues ? FULL_SELECT : SUMMARY_SELECT)
+                .append(" from AuditLog a where 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+
+        if (StringUtils.hasText(filter.entityName())) {
+            jpql.append(" and a.entityName = :entityName");
+            params.put("entityName", filter.entityName());
+        }
+        if (filter.entityId() != null) {
+            jpql.append(" and a.entityId = :entityId");
+            params.put("entityId", filter.entityId());
+        }
+        if (StringUtils.hasText(filter.action())) {
+            jpql.append(" and a.action = :action");
+            params.put("action", filter.action());
+        }
+        if (StringUtils.hasText(filter.changedBy())) {
+            jpql.append(" and a.changedBy = :changedBy");
+            params.put("changedBy", filter.changedBy());
+        }
+        if (filter.from() != null) {
+            jpql.append(" and a.changedAt >= :from");
+            params.put("from", filter.from());
+        }
+        if (filter.to() != null) {
+            jpql.append(" and a.changedAt < :to");
+            params.put("to", filter.to());
+        }
+        if (cursorChangedAt != null && cursorId != null) {
+            jpql.append(" and (a.changedAt < :cursorChangedAt"
+                    + " or (a.changedAt = :cursorChangedAt and a.id < :cursorId))");
+            params.put("cursorChangedAt", cursorChangedAt);
+            params.put("cursorId", cursorId);
+        }
+        jpql.append(" order by a.changedAt desc, a.id desc");
+
+        TypedQuery<AuditLogView> query = entityManager.createQuery(jpql.toString(), AuditLogView.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
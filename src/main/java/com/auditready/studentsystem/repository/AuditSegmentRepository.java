@@ -0,0 +1,36 @@
+package com.auditready.studentsystem.repository;
+
+import com.auditready.studentsystem.entity.AuditSegment;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AuditSegmentRepository extends JpaRepository<AuditSegment, Long> {
+    Optional<AuditSegment> findTopByOrderByLastLogIdDesc();
+
+    List<AuditSegment> findAllByOrderByFirstLogIdAsc();
+
+    List<AuditSegment> findByArchiveFileIsNotNullOrderByFirstLogIdAsc();
+
+    Optional<AuditSegment> findTopByLastLogIdLessThanOrderByLastLogIdDesc(Long beforeId);
+
+    List<AuditSegment> findByOrderByLastLogIdDesc(Pageable pageable);
+
+    // Segments invalidated by rewriting rows from fromId onwards
+    @Modifying
+    @Query("delete from AuditSegment s where s.lastLogId >= :fromId")
+    int deleteFrom(@Param("fromId") Long fromId);
+
+    @Modifying
+    @Query("update AuditSegment s set s.verifiedAt = :verifiedAt where s.id in :ids")
+    int markVerified(@Param("ids") Collection<Long> ids, @Param("verifiedAt") LocalDateTime verifiedAt);
+}
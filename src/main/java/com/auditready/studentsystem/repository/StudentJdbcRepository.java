@@ -0,0 +1,115 @@
+package com.auditready.studentsystem.repository;
+
+import com.auditready.studentsystem.entity.Student;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plain JDBC access to {@code students} for bulk paths that should not go through the
+ * persistence context. Hibernate cannot batch inserts for IDENTITY ids, but the MySQL
+ * driver can: with {@code rewriteBatchedStatements} a batch becomes one multi-row INSERT
+ * and the generated keys come back in row order.
+ */
+@Repository
+public class StudentJdbcRepository {
+
+    // DTO property name -> column, in export order
+    public static final Map<String, String> COLUMNS = columns();
+
+    private static final String INSERT_SQL = "INSERT INTO students "
+            + "(name, email, phone, department, year, address, cgpa, created_at, updated_at, created_by, updated_by) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingTemplate;
+
+    public StudentJdbcRepository(JdbcTemplate jdbcTemplate, DataSource dataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Integer.MIN_VALUE makes MySQL Connector/J stream rows instead of buffering the result set
+        this.streamingTemplate = new JdbcTemplate(dataSource);
+        this.streamingTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    /**
+     * Streams the selected columns of every student, ordered by id, to the handler one row
+     * at a time. {@code properties} must be keys of {@link #COLUMNS}.
+     */
+    public void streamAll(List<String> properties, RowCallbackHandler handler) {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < properties.size(); i++) {
+            String column = COLUMNS.get(properties.get(i));
+            if (column == null) {
+                throw new IllegalArgumentException("Unknown student field: " + properties.get(i));
+            }
+            sql.append(i == 0 ? "" : ", ").append(column);
+        }
+        sql.append(" FROM students ORDER BY id");
+        streamingTemplate.query(sql.toString(), handler);
+    }
+
+    /**
+     * Inserts the students in one batch and assigns their generated ids. Must run inside a
+     * transaction so the batch commits or rolls back as a unit.
+     */
+    public void insertAll(List<Student> students) {
+        if (students.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (Student student : students) {
+                    ps.setString(1, student.getName());
+                    ps.setString(2, student.getEmail());
+                    ps.setString(3, student.getPhone());
+                    ps.setString(4, student.getDepartment());
+                    ps.setObject(5, student.getYear(), Types.INTEGER);
+                    ps.setString(6, student.getAddress());
+                    ps.setObject(7, student.getCgpa(), Types.DOUBLE);
+                    ps.setTimestamp(8, Timestamp.valueOf(student.getCreatedAt()));
+                    ps.setTimestamp(9, Timestamp.valueOf(student.getUpdatedAt()));
+                    ps.setString(10, student.getCreatedBy());
+                    ps.setString(11, student.getUpdatedBy());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int i = 0;
+                    while (keys.next() && i < students.size()) {
+                        students.get(i++).setId(keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+
+    private static Map<String, String> columns() {
+        Map<String, String> columns = new LinkedHashMap<>();
+        columns.put("id", "id");
+        columns.put("name", "name");
+        columns.put("email", "email");
+        columns.put("phone", "phone");
+        columns.put("department", "department");
+        columns.put("year", "year");
+        columns.put("address", "address");
+        columns.put("cgpa", "cgpa");
+        columns.put("createdAt", "created_at");
+        columns.put("updatedAt", "updated_at");
+        columns.put("createdBy", "created_by");
+        return Collections.unmodifiableMap(columns);
+    }
+}
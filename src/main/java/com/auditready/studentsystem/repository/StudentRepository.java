@@ -1,23 +1,28 @@
 package com.auditready.studentsystem.repository;
 
 import com.auditready.studentsystem.entity.Student;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface StudentRepository extends JpaRepository<Student, Long> {
-    List<Student> findByNameContainingIgnoreCase(String name);
+public interface StudentRepository extends JpaRepository<Student, Long>, JpaSpecificationExecutor<Student>,
+        StudentRepositoryCustom {
+    java.util.Optional<Student> findByEmail(String email);
 
-    Page<Student> findByNameContainingIgnoreCase(String name, Pageable pageable);
+    @Query("select s from User u join Student s on s.id = u.studentId where u.username = :username")
+    java.util.Optional<Student> findLinkedToUser(@Param("username") String username);
 
-    Page<Student> findByEmailContainingIgnoreCase(String email, Pageable pageable);
+    @Query(value = "SELECT TABLE_ROWS FROM information_schema.TABLES"
+            + " WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'students'", nativeQuery = true)
+    Long estimateRowCount();
 
-    Page<Student> findByNameContainingIgnoreCaseAndEmailContainingIgnoreCase(
-            String name,
-            String email,
-            Pageable pageable);
+    @Query("select s.email from Student s where s.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
 
-    java.util.Optional<Student> findByEmail(String email);
+    @Query("select s.email, s.id from Student s where s.email in :emails")
+    List<Object[]> findIdsByEmails(@Param("emails") Collection<String> emails);
 }
@@ -0,0 +1,31 @@
+package com.auditready.studentsystem.repository;
+
+import com.auditready.studentsystem.dto.StudentDto;
+import com.auditready.studentsystem.entity.Student;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Read-only student queries that select straight into {@link StudentDto}. A {@code null}
+ * specification matches every student.
+ */
+public interface StudentRepositoryCustom {
+
+    List<StudentDto> findDtos(Specification<Student> spec);
+
+    Page<StudentDto> findDtoPage(Specification<Student> spec, Pageable pageable);
+
+    /**
+     * In no particular order; ids that do not exist are skipped.
+     */
+    List<StudentDto> findDtosByIds(Collection<Long> ids);
+
+    /**
+     * Keyset query ordered by id; rows with an id strictly greater than {@code afterId}.
+     */
+    List<StudentDto> findDtosAfter(Specification<Student> spec, long afterId, int limit);
+}
@@ -0,0 +1,102 @@
+package com.auditready.studentsystem.repository;
+
+import com.auditready.studentsystem.dto.StudentDto;
+import com.auditready.studentsystem.entity.Student;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Builds criteria queries whose selection is a {@code StudentDto} constructor expression.
+ * Results never enter the persistence context: no managed entities, no dirty-checking
+ * snapshots and no second copy through the mapper.
+ */
+public class StudentRepositoryImpl implements StudentRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<StudentDto> findDtos(Specification<Student> spec) {
+        return query(spec, Sort.unsorted()).getResultList();
+    }
+
+    @Override
+    public Page<StudentDto> findDtoPage(Specification<Student> spec, Pageable pageable) {
+        TypedQuery<StudentDto> query = query(spec, pageable.getSort());
+        if (pageable.isUnpaged()) {
+            List<StudentDto> content = query.getResultList();
+            return PageableExecutionUtils.getPage(content, pageable, content::size);
+        }
+        List<StudentDto> content = query.setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        // Skips the count when the first page is not full
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<StudentDto> findDtosByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return query((root, query, cb) -> root.get("id").in(ids), Sort.unsorted()).getResultList();
+    }
+
+    @Override
+    public List<StudentDto> findDtosAfter(Specification<Student> spec, long afterId, int limit) {
+        Specification<Student> after = (root, query, cb) -> cb.greaterThan(root.get("id"), afterId);
+        return query(spec == null ? after : after.and(spec), Sort.by("id"))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private TypedQuery<StudentDto> query(Specification<Student> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<StudentDto> query = cb.createQuery(StudentDto.class);
+        Root<Student> root = query.from(Student.class);
+        // Arguments in StudentDto component order
+        query.select(cb.construct(StudentDto.class,
+                root.get("id"), root.get("name"), root.get("email"), root.get("phone"),
+                root.get("department"), root.get("year"), root.get("address"), root.get("cgpa"),
+                root.get("createdAt"), root.get("updatedAt"), root.get("createdBy"), root.get("version")));
+        where(spec, root, query, cb);
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+        return entityManager.createQuery(query);
+    }
+
+    private long count(Specification<Student> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Student> root = query.from(Student.class);
+        query.select(cb.count(root));
+        where(spec, root, query, cb);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static void where(Specification<Student> spec, Root<Student> root, CriteriaQuery<?> query,
+            CriteriaBuilder cb) {
+        if (spec == null) {
+            return;
+        }
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
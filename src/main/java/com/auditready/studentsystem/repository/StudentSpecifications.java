@@ -0,0 +1,57 @@
+package com.auditready.studentsystem.repository;
+
+import com.auditready.studentsystem.dto.StudentFilter;
+import com.auditready.studentsystem.entity.Student;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Builds student queries from a {@link StudentFilter}. Department, year and CGPA compare the
+ * bare columns so the composite indexes on {@code students} apply; name and email are
+ * substring matches that no B-tree index can serve and only narrow the indexed rows.
+ */
+public final class StudentSpecifications {
+
+    private static final char ESCAPE = '\\';
+
+    private StudentSpecifications() {
+    }
+
+    public static Specification<Student> matching(StudentFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (StringUtils.hasText(filter.department())) {
+                predicates.add(cb.equal(root.get("department"), filter.department().trim()));
+            }
+            if (filter.year() != null) {
+                predicates.add(cb.equal(root.get("year"), filter.year()));
+            }
+            if (filter.minCgpa() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("cgpa"), filter.minCgpa()));
+            }
+            if (filter.maxCgpa() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("cgpa"), filter.maxCgpa()));
+            }
+            if (StringUtils.hasText(filter.name())) {
+                predicates.add(cb.like(cb.lower(root.get("name")), containing(filter.name()), ESCAPE));
+            }
+            if (StringUtils.hasText(filter.email())) {
+                predicates.add(cb.like(cb.lower(root.get("email")), containing(filter.email()), ESCAPE));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static String containing(String value) {
+        String escaped = value.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,65 @@
+package com.auditready.studentsystem.repository;
+
+import com.auditready.studentsystem.entity.User;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Batched JDBC inserts into {@code users} for bulk provisioning; see
+ * {@link StudentJdbcRepository} for why this bypasses the persistence context.
+ */
+@Repository
+public class UserJdbcRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO users "
+            + "(username, password, email, role, student_id, created_at, updated_at, created_by, updated_by) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserJdbcRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the users in one batch and assigns their generated ids. Must run inside a
+     * transaction so the batch commits or rolls back as a unit.
+     */
+    public void insertAll(List<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (User user : users) {
+                    ps.setString(1, user.getUsername());
+                    ps.setString(2, user.getPassword());
+                    ps.setString(3, user.getEmail());
+                    ps.setString(4, user.getRole().name());
+                    ps.setObject(5, user.getStudentId(), Types.BIGINT);
+                    ps.setTimestamp(6, Timestamp.valueOf(user.getCreatedAt()));
+                    ps.setTimestamp(7, Timestamp.valueOf(user.getUpdatedAt()));
+                    ps.setString(8, user.getCreatedBy());
+                    ps.setString(9, user.getUpdatedBy());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int i = 0;
+                    while (keys.next() && i < users.size()) {
+                        users.get(i++).setId(keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
@@ -2,9 +2,41 @@ package com.auditready.studentsystem.repository;
 
 import com.auditready.studentsystem.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
+
+    @Query("select u.username, u.updatedAt from User u where u.updatedAt > :since")
+    List<Object[]> findUpdatedSince(@Param("since") LocalDateTime since);
+
+    // One round trip for a whole provisioning batch: returns {username, email} of any clash
+    @Query("select u.username, u.email from User u where u.username in :usernames or u.email in :emails")
+    List<Object[]> findClashes(@Param("usernames") Collection<String> usernames,
+            @Param("emails") Collection<String> emails);
+
+    // This and the link/unlink updates below bump updated_at so tokens carrying the old
+    // student id go stale
+    @Modifying
+    @Query(value = "UPDATE users u JOIN students s ON s.email = u.email SET u.student_id = s.id, u.updated_at = :now "
+            + "WHERE u.role = 'STUDENT' AND u.student_id IS NULL", nativeQuery = true)
+    int linkStudentsByEmail(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update User u set u.studentId = :studentId, u.updatedAt = :now "
+            + "where u.email = :email and u.role = com.auditready.studentsystem.entity.Role.STUDENT "
+            + "and u.studentId is null")
+    int linkStudent(@Param("studentId") Long studentId, @Param("email") String email,
+            @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("update User u set u.studentId = null, u.updatedAt = :now where u.studentId = :studentId")
+    int unlinkStudent(@Param("studentId") Long studentId, @Param("now") LocalDateTime now);
 }
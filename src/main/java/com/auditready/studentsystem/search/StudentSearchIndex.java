@@ -0,0 +1,356 @@
+package com.auditready.studentsystem.search;
+
+import com.auditready.studentsystem.dto.StudentSearchHit;
+import com.auditready.studentsystem.event.StudentChangedEvent;
+import com.auditready.studentsystem.repository.StudentJdbcRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over student name, email and department. Name and email are
+ * indexed by character trigrams for substring queries, plus one- and two-character token
+ * prefixes so short quick-search queries match the start of a word. Departments have few
+ * distinct values and are kept as one posting list per value, which a query scans. Terms
+ * are matched exactly as given, case-insensitively, like the {@code LIKE '%term%'} search
+ * they replace; {@link #covers} tells callers when a term is too short for that.
+ *
+ * <p>The index is rebuilt from the database once the application is ready and kept current
+ * from committed {@link StudentChangedEvent}s. Until the first build finishes, or if a
+ * student id does not fit the index, {@link #isReady()} is false and callers should fall
+ * back to the database.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StudentSearchIndex {
+
+    public enum Field {
+        NAME('n', 3.0),
+        EMAIL('e', 2.0),
+        DEPARTMENT('d', 1.0);
+
+        private final char code;
+        private final double weight;
+
+        Field(char code, double weight) {
+            this.code = code;
+            this.weight = weight;
+        }
+    }
+
+    private static final int GRAM = 3;
+
+    private final StudentJdbcRepository studentJdbcRepository;
+
+    private final Map<String, IntPostings> postings = new HashMap<>();
+    private final Map<String, IntPostings> departments = new HashMap<>();
+    private final Map<Integer, Doc> docs = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+    // Cleared when a student id above Integer.MAX_VALUE could not be indexed
+    private volatile boolean complete = true;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            departments.clear();
+            docs.clear();
+            complete = true;
+            studentJdbcRepository.streamAll(List.of("id", "name", "email", "department"),
+                    rs -> put(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4)));
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Student search index built: {} students, {} posting lists in {} ms", docs.size(), postings.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.before() != null) {
+                remove(event.studentId());
+            }
+            if (event.after() != null) {
+                put(event.studentId(), event.after().name(), event.after().email(), event.after().department());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready && complete;
+    }
+
+    /**
+     * Whether {@link #matchAll} answers these terms with the same substring semantics as the
+     * database: each non-blank term must be at least a trigram long.
+     */
+    public boolean covers(String name, String email) {
+        return coversTerm(normalize(name)) && coversTerm(normalize(email));
+    }
+
+    private static boolean coversTerm(String term) {
+        return term.isBlank() || term.length() >= GRAM;
+    }
+
+    /**
+     * Ranked matches of {@code query} in any of the given fields, best first. Queries shorter
+     * than a trigram match the start of a word in name and email.
+     */
+    public List<StudentSearchHit> search(String query, Set<Field> fields, int limit) {
+        String term = normalize(query);
+        if (term.isBlank()) {
+            return List.of();
+        }
+        PriorityQueue<StudentSearchHit> top = new PriorityQueue<>(Comparator.comparingDouble(StudentSearchHit::score)
+                .thenComparing(StudentSearchHit::id, Comparator.reverseOrder()));
+        lock.readLock().lock();
+        try {
+            Map<Integer, Double> scores = new HashMap<>();
+            for (Field field : fields) {
+                for (int id : candidates(term, field)) {
+                    double score = score(docs.get(id).value(field), term, field);
+                    if (score > 0) {
+                        scores.merge(id, score, Double::sum);
+                    }
+                }
+            }
+            for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+                Doc doc = docs.get(entry.getKey());
+                top.offer(new StudentSearchHit((long) entry.getKey(), doc.displayName(), doc.displayEmail(),
+                        doc.displayDepartment(), entry.getValue()));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<StudentSearchHit> hits = new ArrayList<>(top);
+        hits.sort(top.comparator().reversed());
+        return hits;
+    }
+
+    /**
+     * Ids of students whose name contains {@code name} and whose email contains
+     * {@code email} (either may be blank), ranked best first. Only exact for terms the index
+     * {@link #covers}.
+     */
+    public List<Long> matchAll(String name, String email) {
+        String nameTerm = normalize(name);
+        String emailTerm = normalize(email);
+        lock.readLock().lock();
+        try {
+            Map<Integer, Double> scores = new HashMap<>();
+            if (!nameTerm.isBlank()) {
+                for (int id : candidates(nameTerm, Field.NAME)) {
+                    double score = score(docs.get(id).value(Field.NAME), nameTerm, Field.NAME);
+                    if (score > 0) {
+                        scores.put(id, score);
+                    }
+                }
+            }
+            if (!emailTerm.isBlank()) {
+                Map<Integer, Double> both = new HashMap<>();
+                Iterable<Integer> pool = nameTerm.isBlank() ? candidates(emailTerm, Field.EMAIL) : scores.keySet();
+                for (int id : pool) {
+                    double score = score(docs.get(id).value(Field.EMAIL), emailTerm, Field.EMAIL);
+                    if (score > 0) {
+                        both.put(id, scores.getOrDefault(id, 0.0) + score);
+                    }
+                }
+                scores = both;
+            }
+            List<Map.Entry<Integer, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Integer, Double>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()));
+            List<Long> ids = new ArrayList<>(ranked.size());
+            for (Map.Entry<Integer, Double> entry : ranked) {
+                ids.add((long) entry.getKey());
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Integer> candidates(String term, Field field) {
+        if (field == Field.DEPARTMENT) {
+            List<Integer> result = new ArrayList<>();
+            for (Map.Entry<String, IntPostings> entry : departments.entrySet()) {
+                if (entry.getKey().contains(term)) {
+                    IntPostings list = entry.getValue();
+                    for (int i = 0; i < list.size(); i++) {
+                        result.add(list.get(i));
+                    }
+                }
+            }
+            return result;
+        }
+        List<IntPostings> lists = new ArrayList<>();
+        if (term.length() < GRAM) {
+            IntPostings prefix = postings.get(prefixKey(field, term));
+            if (prefix == null) {
+                return List.of();
+            }
+            lists.add(prefix);
+        } else {
+            for (String key : gramKeys(field, term)) {
+                IntPostings list = postings.get(key);
+                if (list == null) {
+                    return List.of();
+                }
+                lists.add(list);
+            }
+        }
+        // Walk the shortest list and probe the others
+        lists.sort(Comparator.comparingInt(IntPostings::size));
+        IntPostings smallest = lists.get(0);
+        List<Integer> result = new ArrayList<>(Math.min(smallest.size(), 1024));
+        outer:
+        for (int i = 0; i < smallest.size(); i++) {
+            int id = smallest.get(i);
+            for (int j = 1; j < lists.size(); j++) {
+                if (!lists.get(j).contains(id)) {
+                    continue outer;
+                }
+            }
+            result.add(id);
+        }
+        return result;
+    }
+
+    private static double score(String value, String term, Field field) {
+        if (value == null) {
+            return 0;
+        }
+        double match;
+        if (value.equals(term)) {
+            match = 4;
+        } else if (value.startsWith(term)) {
+            match = 3;
+        } else {
+            int at = value.indexOf(term);
+            if (at < 0) {
+                return 0;
+            }
+            // Starting a word (after a space, dot, @, ...) ranks above a mid-word hit
+            match = Character.isLetterOrDigit(value.charAt(at - 1)) ? 1 : 2;
+        }
+        return match * field.weight;
+    }
+
+    private void put(long studentId, String name, String email, String department) {
+        if (studentId > Integer.MAX_VALUE) {
+            // Results would silently miss this student, so queries go to the database instead
+            if (complete) {
+                log.error("Student id {} exceeds the search index id range; searching the database instead",
+                        studentId);
+            }
+            complete = false;
+            return;
+        }
+        int id = (int) studentId;
+        Doc doc = new Doc(normalize(name), normalize(email), normalize(department), name, email, department);
+        docs.put(id, doc);
+        for (Field field : List.of(Field.NAME, Field.EMAIL)) {
+            for (String key : indexKeys(field, doc.value(field))) {
+                postings.computeIfAbsent(key, k -> new IntPostings()).add(id);
+            }
+        }
+        if (doc.department() != null) {
+            departments.computeIfAbsent(doc.department(), k -> new IntPostings()).add(id);
+        }
+    }
+
+    private void remove(long studentId) {
+        Doc doc = studentId > Integer.MAX_VALUE ? null : docs.remove((int) studentId);
+        if (doc == null) {
+            return;
+        }
+        for (Field field : List.of(Field.NAME, Field.EMAIL)) {
+            for (String key : indexKeys(field, doc.value(field))) {
+                removeFrom(postings, key, (int) studentId);
+            }
+        }
+        if (doc.department() != null) {
+            removeFrom(departments, doc.department(), (int) studentId);
+        }
+    }
+
+    private static void removeFrom(Map<String, IntPostings> lists, String key, int id) {
+        IntPostings list = lists.get(key);
+        if (list != null) {
+            list.remove(id);
+            if (list.isEmpty()) {
+                lists.remove(key);
+            }
+        }
+    }
+
+    private static Set<String> indexKeys(Field field, String value) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (value == null || value.isEmpty()) {
+            return keys;
+        }
+        keys.addAll(gramKeys(field, value));
+        for (String token : value.split("[^\\p{L}\\p{Nd}]+")) {
+            for (int length = 1; length < GRAM && length <= token.length(); length++) {
+                keys.add(prefixKey(field, token.substring(0, length)));
+            }
+        }
+        return keys;
+    }
+
+    private static Set<String> gramKeys(Field field, String value) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            keys.add(field.code + value.substring(i, i + GRAM));
+        }
+        return keys;
+    }
+
+    private static String prefixKey(Field field, String prefix) {
+        return field.code + "^" + prefix;
+    }
+
+    // Not trimmed: the database matches LIKE '%term%' with the term exactly as given
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private record Doc(String name, String email, String department, String displayName, String displayEmail,
+            String displayDepartment) {
+
+        String value(Field field) {
+            return switch (field) {
+                case NAME -> name;
+                case EMAIL -> email;
+                case DEPARTMENT -> department;
+            };
+        }
+    }
+}
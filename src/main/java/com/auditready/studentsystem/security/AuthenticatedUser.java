@@ -0,0 +1,22 @@
+package com.auditready.studentsystem.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Principal built from verified token claims, including the linked student id when the
+ * account has one.
+ */
+@Getter
+public class AuthenticatedUser extends User {
+
+    private final Long studentId;
+
+    public AuthenticatedUser(String username, Collection<? extends GrantedAuthority> authorities, Long studentId) {
+        super(username, "", authorities);
+        this.studentId = studentId;
+    }
+}
@@ -1,6 +1,8 @@
 package com.auditready.studentsystem.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -11,7 +13,7 @@ import org.springframework.stereotype.Component;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
-import java.util.function.Function;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
@@ -19,64 +21,73 @@ public class JwtUtil {
     @Value("${jwt.secret}")
     private String secretKey;
 
+    public static final String TYPE_ACCESS = "access";
+    public static final String TYPE_REFRESH = "refresh";
+
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
+    @Value("${jwt.refresh-expiration:604800000}")
+    private long refreshExpiration;
+
     public long getJwtExpiration() {
         return jwtExpiration;
     }
 
+    public long getRefreshExpiration() {
+        return refreshExpiration;
+    }
+
     private Key signingKey;
 
+    // Immutable and thread-safe; built once instead of per parse
+    private JwtParser parser;
+
     @PostConstruct
     void init() {
         if (secretKey == null || secretKey.length() < 32) {
             throw new IllegalStateException("jwt.secret must be at least 32 characters for HS256");
         }
         this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
-    public String generateToken(String username, String role) {
-        return Jwts.builder()
-                .setSubject(username)
-                .claim("role", role)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(signingKey, SignatureAlgorithm.HS256)
-                .compact();
-    }
-
-    public boolean isTokenValid(String token, String username) {
-        final String tokenUsername = extractUsername(token);
-        return tokenUsername.equals(username) && !isTokenExpired(token);
-    }
-
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    public String extractRole(String token) {
-        return extractAllClaims(token).get("role", String.class);
-    }
-
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    /**
+     * @param studentId the student record linked to the account, carried as {@code sid} so
+     *                  ownership checks need no lookup; {@code null} if none
+     */
+    public String generateToken(String username, String role, Long studentId) {
+        return buildToken(username, role, studentId, TYPE_ACCESS, jwtExpiration);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public String generateRefreshToken(String username, String role) {
+        return buildToken(username, role, null, TYPE_REFRESH, refreshExpiration);
     }
 
-    private <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    // Every token gets a unique id (jti) so it can be revoked individually
+    private String buildToken(String username, String role, Long studentId, String type, long lifetimeMs) {
+        long now = System.currentTimeMillis();
+        JwtBuilder builder = Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(username)
+                .claim("role", role)
+                .claim("typ", type)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + lifetimeMs));
+        if (studentId != null) {
+            builder.claim("sid", studentId);
+        }
+        return builder.signWith(signingKey, SignatureAlgorithm.HS256).compact();
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(signingKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Verifies signature and expiry in a single parse and returns the claims.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 }
@@ -0,0 +1,101 @@
+package com.auditready.studentsystem.security;
+
+import com.auditready.studentsystem.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Token-bucket limits on login attempts per username and per client IP, checked before
+ * any user lookup or hashing so repeated guesses cost almost nothing to refuse. Idle
+ * buckets are evicted, which bounds memory under address or username scanning.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final Cache<String, TokenBucket> usernameBuckets;
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final int usernameCapacity;
+    private final double usernameRefillPerMs;
+    private final int ipCapacity;
+    private final double ipRefillPerMs;
+    private final Counter usernameThrottled;
+    private final Counter ipThrottled;
+
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+            @Value("${auth.rate-limit.username-capacity:5}") int usernameCapacity,
+            @Value("${auth.rate-limit.username-per-minute:5}") int usernamePerMinute,
+            @Value("${auth.rate-limit.ip-capacity:30}") int ipCapacity,
+            @Value("${auth.rate-limit.ip-per-minute:30}") int ipPerMinute,
+            @Value("${auth.rate-limit.max-tracked:100000}") long maxTracked) {
+        this.usernameCapacity = usernameCapacity;
+        this.usernameRefillPerMs = usernamePerMinute / 60_000.0;
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPerMs = ipPerMinute / 60_000.0;
+        // A bucket idle for this long has refilled completely, so dropping it loses nothing
+        Duration idle = Duration.ofMinutes(Math.max(1, Math.max(
+                (long) Math.ceil((double) usernameCapacity / Math.max(1, usernamePerMinute)),
+                (long) Math.ceil((double) ipCapacity / Math.max(1, ipPerMinute)))));
+        this.usernameBuckets = Caffeine.newBuilder().maximumSize(maxTracked).expireAfterAccess(idle).build();
+        this.ipBuckets = Caffeine.newBuilder().maximumSize(maxTracked).expireAfterAccess(idle).build();
+        this.usernameThrottled = Counter.builder("auth.login.throttled").tag("scope", "username")
+                .register(meterRegistry);
+        this.ipThrottled = Counter.builder("auth.login.throttled").tag("scope", "ip")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes one attempt from both buckets.
+     *
+     * @throws TooManyRequestsException if either bucket is empty
+     */
+    public void acquire(String username, String clientIp) {
+        long ipWait = ipBuckets.get(clientIp, k -> new TokenBucket(ipCapacity, ipRefillPerMs)).tryConsume();
+        if (ipWait > 0) {
+            ipThrottled.increment();
+            throw new TooManyRequestsException("Too many login attempts from this address", ipWait);
+        }
+        String key = username.toLowerCase(Locale.ROOT);
+        long userWait = usernameBuckets.get(key, k -> new TokenBucket(usernameCapacity, usernameRefillPerMs))
+                .tryConsume();
+        if (userWait > 0) {
+            usernameThrottled.increment();
+            throw new TooManyRequestsException("Too many login attempts for this account", userWait);
+        }
+    }
+
+    private static final class TokenBucket {
+
+        private final int capacity;
+        private final double refillPerMs;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(int capacity, double refillPerMs) {
+            this.capacity = capacity;
+            this.refillPerMs = refillPerMs;
+            this.tokens = capacity;
+            this.lastRefill = System.currentTimeMillis();
+        }
+
+        /**
+         * Returns 0 if a token was taken, otherwise the milliseconds until one is available.
+         */
+        synchronized long tryConsume() {
+            long now = System.currentTimeMillis();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerMs);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return refillPerMs > 0 ? (long) Math.ceil((1 - tokens) / refillPerMs) : Long.MAX_VALUE / 2;
+        }
+    }
+}
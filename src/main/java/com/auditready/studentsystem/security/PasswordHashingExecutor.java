@@ -0,0 +1,123 @@
+package com.auditready.studentsystem.security;
+
+import com.auditready.studentsystem.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs BCrypt verification on a small dedicated pool instead of the request thread, so a
+ * login storm is capped at a fixed number of cores and cannot starve other endpoints.
+ * <p>
+ * Admission adapts to load: each request's expected queue wait is estimated from a moving
+ * average of recent hash times, and requests that would wait longer than
+ * {@code auth.hashing.max-wait-ms} (or find the queue full) are rejected immediately with
+ * a retry hint rather than piling up.
+ */
+@Slf4j
+@Component
+public class PasswordHashingExecutor {
+
+    // Weight of the newest sample in the hash time moving average
+    private static final double SMOOTHING = 0.2;
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final int threads;
+    private final long maxWaitMs;
+    private final Timer hashTimer;
+    private final Counter rejectedCounter;
+    private volatile double averageHashMs;
+
+    public PasswordHashingExecutor(PasswordEncoder passwordEncoder, MeterRegistry meterRegistry,
+            @Value("${auth.hashing.threads:0}") int threads,
+            @Value("${auth.hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${auth.hashing.max-wait-ms:2000}") long maxWaitMs) {
+        this.passwordEncoder = passwordEncoder;
+        // Default to half the cores so the rest stay available for ordinary traffic
+        this.threads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.maxWaitMs = maxWaitMs;
+        // Seed with a typical cost-10 BCrypt time until real samples arrive
+        this.averageHashMs = 100;
+
+        AtomicInteger counter = new AtomicInteger();
+        BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.executor = new ThreadPoolExecutor(this.threads, this.threads, 0L, TimeUnit.MILLISECONDS, queue, r -> {
+            Thread thread = new Thread(r, "password-hash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("auth.hashing.queue.depth", queue, BlockingQueue::size)
+                .description("Password checks waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+        this.hashTimer = Timer.builder("auth.hashing.latency")
+                .description("Time spent computing a password hash")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.hashing.rejected")
+                .description("Password checks refused because the hashing pool was saturated")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Verifies a password on the hashing pool.
+     *
+     * @throws TooManyRequestsException if the pool is saturated
+     */
+    public CompletableFuture<Boolean> matches(CharSequence rawPassword, String encodedPassword) {
+        long expectedWaitMs = expectedWaitMillis();
+        if (expectedWaitMs > maxWaitMs) {
+            throw reject(expectedWaitMs);
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> timedMatches(rawPassword, encodedPassword), executor);
+        } catch (RejectedExecutionException e) {
+            throw reject(expectedWaitMs);
+        }
+    }
+
+    private boolean timedMatches(CharSequence rawPassword, String encodedPassword) {
+        long start = System.nanoTime();
+        try {
+            return passwordEncoder.matches(rawPassword, encodedPassword);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            hashTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            // Racy read-modify-write is fine for an estimate
+            averageHashMs += SMOOTHING * (elapsed / 1_000_000.0 - averageHashMs);
+        }
+    }
+
+    private long expectedWaitMillis() {
+        int ahead = executor.getQueue().size() + executor.getActiveCount();
+        return (long) Math.ceil((double) ahead / threads * averageHashMs);
+    }
+
+    private TooManyRequestsException reject(long expectedWaitMs) {
+        rejectedCounter.increment();
+        log.warn("Login rejected: hashing pool saturated (expected wait {} ms)", expectedWaitMs);
+        return new TooManyRequestsException("Too many login attempts, please retry shortly",
+                Math.max(expectedWaitMs, (long) averageHashMs));
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,44 @@
+package com.auditready.studentsystem.security;
+
+import com.auditready.studentsystem.event.StudentChangedEvent;
+import com.auditready.studentsystem.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Maintains the explicit {@code users.student_id} link. Accounts are matched to student
+ * records by email once, when either side is created, instead of on every ownership check.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StudentAccountLinker {
+
+    private final UserRepository userRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfill() {
+        int linked = userRepository.linkStudentsByEmail(LocalDateTime.now());
+        if (linked > 0) {
+            log.info("Linked {} student accounts to their student records", linked);
+        }
+    }
+
+    // Runs after the creating transaction has committed, so it needs its own
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onStudentChanged(StudentChangedEvent event) {
+        if (event.type() == StudentChangedEvent.ChangeType.CREATE && event.after() != null) {
+            userRepository.linkStudent(event.studentId(), event.after().email(), LocalDateTime.now());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.auditready.studentsystem.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revoked token ids ({@code jti}) kept until the token would have expired anyway. Lookups
+ * are in-memory: a Bloom filter answers the common "not revoked" case, and only its rare
+ * positives fall through to the exact map. Expired entries are pruned periodically and the
+ * filter is rebuilt from what remains.
+ * <p>
+ * Each revocation is appended to a local snapshot file that is compacted on prune and
+ * reloaded on startup, so revocations survive a restart.
+ */
+@Slf4j
+@Component
+public class TokenDenylist {
+
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+
+    private final Path path;
+    private final int expectedSize;
+    private final long pruneIntervalMs;
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "token-denylist-prune");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile BloomFilter filter;
+
+    public TokenDenylist(@Value("${jwt.denylist.snapshot-path:data/token-denylist.log}") String path,
+            @Value("${jwt.denylist.expected-size:100000}") int expectedSize,
+            @Value("${jwt.denylist.prune-interval-ms:300000}") long pruneIntervalMs) {
+        this.path = Path.of(path);
+        this.expectedSize = expectedSize;
+        this.pruneIntervalMs = pruneIntervalMs;
+        this.filter = new BloomFilter(expectedSize, FALSE_POSITIVE_RATE);
+    }
+
+    @PostConstruct
+    void start() {
+        load();
+        prune();
+        scheduler.scheduleWithFixedDelay(this::prune, pruneIntervalMs, pruneIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Revokes a token id until {@code expiresAtMs}. Returns {@code false} if it was already
+     * revoked or has expired, which lets refresh-token rotation consume a token exactly once.
+     */
+    public boolean revoke(String jti, long expiresAtMs) {
+        if (jti == null || expiresAtMs <= System.currentTimeMillis()) {
+            return false;
+        }
+        // Map first, so a filter hit always finds its entry
+        if (revoked.putIfAbsent(jti, expiresAtMs) != null) {
+            return false;
+        }
+        append(jti, expiresAtMs);
+        return true;
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        return revoked.containsKey(jti);
+    }
+
+    private void prune() {
+        try {
+            long now = System.currentTimeMillis();
+            revoked.values().removeIf(expiresAt -> expiresAt <= now);
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedSize, revoked.size() * 2), FALSE_POSITIVE_RATE);
+            synchronized (this) {
+                revoked.keySet().forEach(rebuilt::add);
+                filter = rebuilt;
+                compact();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to prune token denylist", e);
+        }
+    }
+
+    private synchronized void append(String jti, long expiresAtMs) {
+        // Under the same lock as the swap in prune(), so the entry lands in whichever filter is current
+        filter.add(jti);
+        try {
+            Files.writeString(path, jti + ' ' + expiresAtMs + '\n', StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.warn("Failed to persist token revocation; it will not survive a restart", e);
+        }
+    }
+
+    private void compact() {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Long> entry : revoked.entrySet()) {
+                writer.write(entry.getKey() + ' ' + entry.getValue());
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            log.warn("Failed to compact token denylist snapshot", e);
+            return;
+        }
+        try {
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to replace token denylist snapshot", e);
+        }
+    }
+
+    private void load() {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            if (!Files.exists(path)) {
+                return;
+            }
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                int space = line.indexOf(' ');
+                if (space <= 0) {
+                    continue;
+                }
+                try {
+                    String jti = line.substring(0, space);
+                    long expiresAt = Long.parseLong(line.substring(space + 1).trim());
+                    revoked.merge(jti, expiresAt, Math::max);
+                    filter.add(jti);
+                } catch (NumberFormatException e) {
+                    // A torn final line from a crash mid-append
+                    log.warn("Skipping unreadable token denylist entry");
+                }
+            }
+            log.info("Loaded {} revoked tokens from {}", revoked.size(), path);
+        } catch (IOException e) {
+            log.warn("Failed to load token denylist snapshot {}", path, e);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+}
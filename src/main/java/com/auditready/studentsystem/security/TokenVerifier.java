@@ -0,0 +1,110 @@
+package com.auditready.studentsystem.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Turns a bearer token into an authenticated principal with one signature check and no
+ * database access: the username and role come from the signed claims. Verified tokens are
+ * kept in a short-TTL cache so repeat requests skip the HMAC entirely; an entry never
+ * outlives its token.
+ */
+@Component
+public class TokenVerifier {
+
+    private final JwtUtil jwtUtil;
+    private final UserChangeMonitor userChangeMonitor;
+    private final TokenDenylist tokenDenylist;
+    private final Cache<String, VerifiedToken> verified;
+
+    public TokenVerifier(JwtUtil jwtUtil, UserChangeMonitor userChangeMonitor, TokenDenylist tokenDenylist,
+            @Value("${jwt.verified-cache-ttl-ms:60000}") long cacheTtlMs,
+            @Value("${jwt.verified-cache-size:10000}") long cacheSize) {
+        this.jwtUtil = jwtUtil;
+        this.userChangeMonitor = userChangeMonitor;
+        this.tokenDenylist = tokenDenylist;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        long untilExpiry = value.expiresAt() - System.currentTimeMillis();
+                        return Duration.ofMillis(Math.max(0, Math.min(cacheTtlMs, untilExpiry))).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime,
+                            long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public Optional<VerifiedToken> verify(String token) {
+        VerifiedToken result = verified.getIfPresent(token);
+        if (result == null) {
+            result = parse(token);
+            if (result == null) {
+                return Optional.empty();
+            }
+            verified.put(token, result);
+        }
+        // Checked on every request, cached or not, so account changes cut in within one poll interval
+        // and revocations immediately
+        if (tokenDenylist.isRevoked(result.jti())
+                || userChangeMonitor.isStale(result.username(), result.issuedAt())) {
+            verified.invalidate(token);
+            return Optional.empty();
+        }
+        return Optional.of(result);
+    }
+
+    private VerifiedToken parse(String token) {
+        Claims claims;
+        try {
+            claims = jwtUtil.parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        String role = claims.get("role", String.class);
+        if (claims.getSubject() == null || role == null || claims.getExpiration() == null
+                || claims.getId() == null) {
+            return null;
+        }
+        // Refresh tokens are only accepted by the refresh endpoint
+        if (!JwtUtil.TYPE_ACCESS.equals(claims.get("typ", String.class))) {
+            return null;
+        }
+        return new VerifiedToken(claims.getId(), claims.getSubject(), claims.get("sid", Long.class),
+                List.of(new SimpleGrantedAuthority("ROLE_" + role)), claims.getIssuedAt(),
+                claims.getExpiration().getTime());
+    }
+
+    public record VerifiedToken(
+            String jti,
+            String username,
+            Long studentId,
+            List<GrantedAuthority> authorities,
+            Date issuedAt,
+            long expiresAt) {
+    }
+}
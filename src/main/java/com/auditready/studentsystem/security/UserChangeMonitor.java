@@ -0,0 +1,100 @@
+package com.auditready.studentsystem.security;
+
+import com.auditready.studentsystem.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks when each user account last changed (role, password, ...) by polling
+ * {@code users.updated_at} on a fixed interval instead of querying per request. Tokens
+ * issued before a user's last change are treated as stale, so role changes take effect
+ * within one poll interval.
+ */
+@Slf4j
+@Component
+public class UserChangeMonitor {
+
+    private final UserRepository userRepository;
+    private final long pollIntervalMs;
+    private final long lookbackMs;
+    private final Map<String, LocalDateTime> lastChanged = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "user-change-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private volatile LocalDateTime since;
+
+    public UserChangeMonitor(UserRepository userRepository,
+            @Value("${jwt.user-refresh-interval-ms:30000}") long pollIntervalMs,
+            @Value("${jwt.expiration}") long jwtExpiration) {
+        this.userRepository = userRepository;
+        this.pollIntervalMs = pollIntervalMs;
+        // Changes older than the token lifetime cannot affect any live token
+        this.lookbackMs = jwtExpiration;
+    }
+
+    @PostConstruct
+    void start() {
+        since = LocalDateTime.now().minus(lookbackMs, ChronoUnit.MILLIS);
+        poll();
+        scheduler.scheduleWithFixedDelay(this::poll, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public boolean isStale(String username, Date issuedAt) {
+        LocalDateTime changed = lastChanged.get(username);
+        if (changed == null) {
+            return false;
+        }
+        return issuedAt == null || issuedBefore(issuedAt, changed);
+    }
+
+    /**
+     * Whether a token issued at {@code issuedAt} predates an account change at
+     * {@code changed}. iat has second precision and a {@code DATETIME} column without
+     * fractional seconds may round the change up to the next second, so a token only
+     * counts as older when its issue second is more than one second before the change.
+     */
+    public static boolean issuedBefore(Date issuedAt, LocalDateTime changed) {
+        LocalDateTime issued = LocalDateTime.ofInstant(issuedAt.toInstant(), ZoneId.systemDefault());
+        return issued.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1).isBefore(changed.truncatedTo(ChronoUnit.SECONDS));
+    }
+
+    private void poll() {
+        try {
+            LocalDateTime next = LocalDateTime.now();
+            for (Object[] row : userRepository.findUpdatedSince(since)) {
+                String username = (String) row[0];
+                LocalDateTime updatedAt = (LocalDateTime) row[1];
+                lastChanged.merge(username, updatedAt, (a, b) -> a.isAfter(b) ? a : b);
+            }
+            since = next.minusSeconds(1);
+            prune();
+        } catch (RuntimeException e) {
+            log.warn("Failed to refresh user change timestamps", e);
+        }
+    }
+
+    private void prune() {
+        LocalDateTime horizon = LocalDateTime.now().minus(lookbackMs, ChronoUnit.MILLIS);
+        lastChanged.values().removeIf(changed -> changed.isBefore(horizon));
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+    }
+}
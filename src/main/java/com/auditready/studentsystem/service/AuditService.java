@@ -1,16 +1,27 @@
 package com.auditready.studentsystem.service;
 
+import com.auditready.studentsystem.audit.FieldChange;
+import com.auditready.studentsystem.dto.AuditLogFilter;
+import com.auditready.studentsystem.dto.AuditLogView;
+import com.auditready.studentsystem.dto.CursorPage;
+import com.auditready.studentsystem.dto.FieldChangeFilter;
+import com.auditready.studentsystem.dto.FieldChangeView;
 import com.auditready.studentsystem.entity.AuditLog;
 import java.util.List;
+import java.util.function.Supplier;
 
 public interface AuditService {
-    void logCreate(String entityName, Long entityId, Object newEntity);
+    // States are JSON, produced on demand so DELTA rows skip serializing what they do not store
+    void recordCreate(String entityName, Long entityId, Supplier<String> newState);
 
-    void logUpdate(String entityName, Long entityId, Object oldEntity, Object newEntity);
+    void recordUpdate(String entityName, Long entityId, Supplier<String> oldState, Supplier<String> newState,
+            List<FieldChange> changes, String scope);
 
-    void logDelete(String entityName, Long entityId, Object oldEntity);
+    void recordDelete(String entityName, Long entityId, Supplier<String> oldState);
 
-    List<AuditLog> getAllLogs();
+    CursorPage<AuditLogView> getLogs(AuditLogFilter filter, String cursor, int limit, boolean includeValues);
+
+    CursorPage<FieldChangeView> getFieldChanges(FieldChangeFilter filter, String cursor, int limit);
 
     List<AuditLog> getStudentLogs(Long studentId);
 }
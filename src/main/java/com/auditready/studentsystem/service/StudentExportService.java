@@ -0,0 +1,13 @@
+package com.auditready.studentsystem.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+public interface StudentExportService {
+    List<String> resolveFields(String fields);
+
+    void exportCsv(List<String> fields, OutputStream output) throws IOException;
+
+    void exportNdjson(List<String> fields, OutputStream output) throws IOException;
+}
@@ -0,0 +1,12 @@
+package com.auditready.studentsystem.service;
+
+import com.auditready.studentsystem.dto.StudentDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StudentHistoryService {
+    StudentDto getStudentAsOf(Long id, LocalDateTime asOf);
+
+    List<StudentDto> getDepartmentAsOf(String department, LocalDateTime asOf);
+}
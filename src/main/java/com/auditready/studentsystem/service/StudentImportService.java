@@ -0,0 +1,12 @@
+package com.auditready.studentsystem.service;
+
+import com.auditready.studentsystem.dto.ImportReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface StudentImportService {
+    ImportReport importCsv(InputStream input) throws IOException;
+
+    ImportReport importNdjson(InputStream input) throws IOException;
+}
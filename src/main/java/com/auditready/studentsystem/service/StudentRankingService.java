@@ -0,0 +1,13 @@
+package com.auditready.studentsystem.service;
+
+import com.auditready.studentsystem.dto.RankedStudent;
+
+import java.util.List;
+
+public interface StudentRankingService {
+    List<RankedStudent> getTop(String department, int limit);
+
+    RankedStudent getRank(Long studentId, boolean withinDepartment);
+
+    List<RankedStudent> getPercentileRange(String department, double fromPercentile, double toPercentile, int limit);
+}
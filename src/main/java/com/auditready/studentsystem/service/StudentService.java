@@ -1,6 +1,11 @@
 package com.auditready.studentsystem.service;
 
+import com.auditready.studentsystem.dto.CountMode;
+import com.auditready.studentsystem.dto.CursorPage;
+import com.auditready.studentsystem.dto.DepartmentStatistics;
 import com.auditready.studentsystem.dto.StudentDto;
+import com.auditready.studentsystem.dto.StudentFilter;
+import com.auditready.studentsystem.dto.StudentSearchHit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -13,13 +18,25 @@ public interface StudentService {
 
     StudentDto getStudentByEmail(String email);
 
+    StudentDto getStudentForUser(String username);
+
     StudentDto createStudent(StudentDto studentDto);
 
-    StudentDto updateStudent(Long id, StudentDto studentDto);
+    /**
+     * @param expectedVersion version the client last saw, from {@code If-Match}; {@code null}
+     *                        skips the precondition
+     */
+    StudentDto updateStudent(Long id, StudentDto studentDto, Long expectedVersion);
 
     void deleteStudent(Long id);
 
     Page<StudentDto> getAllStudents(Pageable pageable);
 
-    Page<StudentDto> searchStudents(String name, String email, Pageable pageable);
+    Page<StudentDto> searchStudents(StudentFilter filter, Pageable pageable);
+
+    List<StudentSearchHit> quickSearch(String query, String fields, int limit);
+
+    List<DepartmentStatistics> getDepartmentStatistics();
+
+    CursorPage<StudentDto> scrollStudents(String name, String email, String cursor, int size, CountMode countMode);
 }
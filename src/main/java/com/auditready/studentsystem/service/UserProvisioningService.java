@@ -0,0 +1,10 @@
+package com.auditready.studentsystem.service;
+
+import com.auditready.studentsystem.dto.ImportReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface UserProvisioningService {
+    ImportReport provisionNdjson(InputStream input) throws IOException;
+}
@@ -1,107 +1,222 @@
 package com.auditready.studentsystem.service.impl;
 
+import com.auditready.studentsystem.audit.AuditArchive;
+import com.auditready.studentsystem.audit.AuditHistoryReconstructor;
+import com.auditready.studentsystem.audit.AuditLogWriter;
+import com.auditready.studentsystem.audit.AuditPayloadCodec;
+import com.auditready.studentsystem.audit.AuditPayloadType;
+import com.auditready.studentsystem.audit.AuditRecord;
+import com.auditready.studentsystem.audit.FieldChange;
+import com.auditready.studentsystem.audit.SnapshotPolicy;
+import com.auditready.studentsystem.dto.AuditLogFilter;
+import com.auditready.studentsystem.dto.AuditLogView;
+import com.auditready.studentsystem.dto.CursorPage;
+import com.auditready.studentsystem.dto.FieldChangeFilter;
+import com.auditready.studentsystem.dto.FieldChangeView;
 import com.auditready.studentsystem.entity.AuditLog;
+import com.auditready.studentsystem.repository.AuditFieldChangeRepository;
 import com.auditready.studentsystem.repository.AuditLogRepository;
 import com.auditready.studentsystem.service.AuditService;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.lang.reflect.Field;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AuditServiceImpl implements AuditService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final AuditLogRepository auditLogRepository;
+    private final AuditFieldChangeRepository fieldChangeRepository;
+    private final AuditLogWriter auditLogWriter;
+    private final AuditArchive auditArchive;
+    private final AuditHistoryReconstructor reconstructor;
+    private final AuditPayloadCodec payloadCodec;
+    private final SnapshotPolicy snapshotPolicy;
     private final ObjectMapper objectMapper;
 
+    // FULL keeps old/new JSON on every row; DELTA stores periodic snapshots plus field-level deltas
+    @Value("${audit.storage.mode:DELTA}")
+    private String storageMode;
+
     @Override
-    @Transactional
-    public void logCreate(String entityName, Long entityId, Object newEntity) {
-        saveLog("CREATE", entityName, entityId, null, serialize(newEntity), "Created new " + entityName);
+    public void recordCreate(String entityName, Long entityId, Supplier<String> newState) {
+        if (!isDeltaMode()) {
+            saveLog("CREATE", entityName, entityId, null, newState.get(), "Created new " + entityName);
+            return;
+        }
+        snapshotPolicy.markSnapshot(entityName, entityId);
+        saveLog("CREATE", entityName, entityId, null, payloadCodec.encode(newState.get()),
+                "Created new " + entityName, AuditPayloadType.SNAPSHOT);
     }
 
     @Override
-    @Transactional
-    public void logUpdate(String entityName, Long entityId, Object oldEntity, Object newEntity) {
-        String diff = generateDiff(oldEntity, newEntity);
-        if (!diff.isEmpty()) {
-            saveLog("UPDATE", entityName, entityId, serialize(oldEntity), serialize(newEntity), diff);
+    public void recordUpdate(String entityName, Long entityId, Supplier<String> oldState,
+            Supplier<String> newState, List<FieldChange> changes, String scope) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        String diff = toJson(changes);
+        if (!isDeltaMode()) {
+            saveLog("UPDATE", entityName, entityId, oldState.get(), newState.get(), diff, null, scope);
+        } else if (snapshotPolicy.snapshotDue(entityName, entityId)) {
+            // The old state is recoverable by applying the diff backwards
+            saveLog("UPDATE", entityName, entityId, null, payloadCodec.encode(newState.get()), diff,
+                    AuditPayloadType.SNAPSHOT, scope);
+        } else {
+            saveLog("UPDATE", entityName, entityId, null, null, diff, AuditPayloadType.DELTA, scope);
         }
     }
 
     @Override
-    @Transactional
-    public void logDelete(String entityName, Long entityId, Object oldEntity) {
-        saveLog("DELETE", entityName, entityId, serialize(oldEntity), null, "Deleted " + entityName);
+    public void recordDelete(String entityName, Long entityId, Supplier<String> oldState) {
+        if (!isDeltaMode()) {
+            saveLog("DELETE", entityName, entityId, oldState.get(), null, "Deleted " + entityName);
+            return;
+        }
+        boolean snapshot = snapshotPolicy.snapshotDue(entityName, entityId);
+        snapshotPolicy.forget(entityName, entityId);
+        if (snapshot) {
+            saveLog("DELETE", entityName, entityId, payloadCodec.encode(oldState.get()), null,
+                    "Deleted " + entityName, AuditPayloadType.SNAPSHOT);
+        } else {
+            saveLog("DELETE", entityName, entityId, null, null, "Deleted " + entityName, AuditPayloadType.DELTA);
+        }
     }
 
     @Override
-    public List<AuditLog> getAllLogs() {
-        return auditLogRepository.findAllByOrderByChangedAtDesc();
+    @Transactional(readOnly = true)
+    public CursorPage<AuditLogView> getLogs(AuditLogFilter filter, String cursor, int limit, boolean includeValues) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        TimeCursor position = TimeCursor.decode(cursor);
+
+        // Fetch one extra row to learn whether another page exists without a COUNT
+        List<AuditLogView> rows = auditLogRepository.findPage(filter, position.changedAt(), position.id(),
+                pageSize + 1, includeValues);
+        rows = auditArchive.mergeArchived(rows, filter, position.changedAt(), position.id(), pageSize + 1,
+                includeValues);
+        boolean hasMore = rows.size() > pageSize;
+        List<AuditLogView> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore
+                ? CursorPage.encodeCursor(items.get(items.size() - 1).changedAt(), items.get(items.size() - 1).id())
+                : null;
+        return new CursorPage<>(includeValues ? withValues(items) : items, nextCursor, hasMore);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CursorPage<FieldChangeView> getFieldChanges(FieldChangeFilter filter, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        TimeCursor position = TimeCursor.decode(cursor);
+        List<FieldChangeView> rows = fieldChangeRepository.findPage(filter, position.changedAt(), position.id(),
+                pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<FieldChangeView> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore
+                ? CursorPage.encodeCursor(items.get(items.size() - 1).changedAt(), items.get(items.size() - 1).id())
+                : null;
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<AuditLog> getStudentLogs(Long studentId) {
-        return auditLogRepository.findByEntityNameAndEntityIdOrderByChangedAtDesc("STUDENT", studentId);
+        return getEntityHistory("STUDENT", studentId);
+    }
+
+    private List<AuditLog> getEntityHistory(String entityName, Long entityId) {
+        List<AuditLog> history = reconstructor.reconstruct(auditArchive.entityHistory(entityName, entityId));
+        Collections.reverse(history);
+        return history;
+    }
+
+    private List<AuditLogView> withValues(List<AuditLogView> items) {
+        // Delta rows only hold a diff, so rebuild each entity's history once and pick the rows on this page
+        Set<String> keys = new LinkedHashSet<>();
+        Map<Long, AuditLog> reconstructed = new HashMap<>();
+        for (AuditLogView item : items) {
+            if (item.entityId() != null && keys.add(item.entityName() + ":" + item.entityId())) {
+                for (AuditLog entry : getEntityHistory(item.entityName(), item.entityId())) {
+                    reconstructed.put(entry.getId(), entry);
+                }
+            }
+        }
+        List<AuditLogView> result = new ArrayList<>(items.size());
+        for (AuditLogView item : items) {
+            AuditLog full = reconstructed.get(item.id());
+            result.add(full == null ? item
+                    : new AuditLogView(item.id(), item.action(), item.entityName(), item.entityId(),
+                            item.changedBy(), item.changedAt(), item.diff(), full.getOldValues(),
+                            full.getNewValues()));
+        }
+        return result;
+    }
+
+    private boolean isDeltaMode() {
+        return "DELTA".equalsIgnoreCase(storageMode);
     }
 
     private void saveLog(String action, String entityName, Long entityId, String oldVal, String newVal, String diff) {
+        saveLog(action, entityName, entityId, oldVal, newVal, diff, null, null);
+    }
+
+    private void saveLog(String action, String entityName, Long entityId, String oldVal, String newVal, String diff,
+            String payloadType) {
+        saveLog(action, entityName, entityId, oldVal, newVal, diff, payloadType, null);
+    }
+
+    private void saveLog(String action, String entityName, Long entityId, String oldVal, String newVal, String diff,
+            String payloadType, String scope) {
         String currentUser = SecurityContextHolder.getContext().getAuthentication() != null
                 ? SecurityContextHolder.getContext().getAuthentication().getName()
                 : "SYSTEM";
 
-        AuditLog auditLog = AuditLog.builder()
-                .action(action)
-                .entityName(entityName)
-                .entityId(entityId)
-                .changedBy(currentUser)
-                .changedAt(LocalDateTime.now())
-                .oldValues(oldVal)
-                .newValues(newVal)
-                .diff(diff)
-                .build();
-
-        auditLogRepository.save(auditLog);
+        // Persisted asynchronously once the surrounding transaction commits
+        auditLogWriter.submit(new AuditRecord(0, action, entityName, entityId, currentUser, LocalDateTime.now(),
+                oldVal, newVal, diff, payloadType,
+                AuditPayloadType.SNAPSHOT.equals(payloadType) && payloadCodec.isCompressing() ? Boolean.TRUE : null,
+                scope));
     }
 
-    private String serialize(Object obj) {
-        try {
-            return objectMapper.writeValueAsString(obj);
-        } catch (Exception e) {
-            log.error("Failed to serialize object for auditing", e);
-            return "Error serializing";
-        }
-    }
+    // Position of a (changedAt, id) descending keyset cursor; both null for the first page
+    private record TimeCursor(LocalDateTime changedAt, Long id) {
 
-    private String generateDiff(Object oldObj, Object newObj) {
-        StringBuilder diff = new StringBuilder();
-        Field[] fields = oldObj.getClass().getDeclaredFields();
-        for (Field field : fields) {
+        static TimeCursor decode(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return new TimeCursor(null, null);
+            }
+            String[] parts = CursorPage.decodeCursor(cursor, 2);
             try {
-                field.setAccessible(true);
-                Object oldVal = field.get(oldObj);
-                Object newVal = field.get(newObj);
-
-                if (oldVal == null && newVal == null)
-                    continue;
-                if (oldVal != null && oldVal.equals(newVal))
-                    continue;
-
-                if (diff.length() > 0)
-                    diff.append(", ");
-                diff.append(field.getName()).append(": [").append(oldVal).append("] -> [").append(newVal).append("]");
-            } catch (Exception e) {
-                log.error("Error comparing fields for diff", e);
+                return new TimeCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+            } catch (DateTimeParseException | NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
             }
         }
-        return diff.toString();
+    }
+
+    private String toJson(List<FieldChange> changes) {
+        try {
+            return objectMapper.writeValueAsString(changes);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize diff", e);
+        }
     }
 }
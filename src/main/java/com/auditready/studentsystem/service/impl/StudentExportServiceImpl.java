@@ -0,0 +1,128 @@
+package com.auditready.studentsystem.service.impl;
+
+import com.auditready.studentsystem.repository.StudentJdbcRepository;
+import com.auditready.studentsystem.service.StudentExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes students straight from a streaming JDBC result set to the response, one row at a
+ * time, so heap use does not depend on the number of students.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StudentExportServiceImpl implements StudentExportService {
+
+    private final StudentJdbcRepository studentJdbcRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public List<String> resolveFields(String fields) {
+        if (!StringUtils.hasText(fields)) {
+            return new ArrayList<>(StudentJdbcRepository.COLUMNS.keySet());
+        }
+        List<String> resolved = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(StringUtils::hasText)
+                .distinct()
+                .toList();
+        for (String field : resolved) {
+            if (!StudentJdbcRepository.COLUMNS.containsKey(field)) {
+                throw new IllegalArgumentException("Unknown student field: " + field);
+            }
+        }
+        return resolved;
+    }
+
+    @Override
+    public void exportCsv(List<String> fields, OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write(String.join(",", fields));
+        writer.write('\n');
+        stream(fields, rs -> {
+            for (int i = 0; i < fields.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = read(rs, i + 1);
+                if (value != null) {
+                    writeCsvCell(writer, value.toString());
+                }
+            }
+            writer.write('\n');
+        });
+        writer.flush();
+    }
+
+    @Override
+    public void exportNdjson(List<String> fields, OutputStream output) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(output);
+        // Keep the response stream open so each row's newline can follow its object
+        generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+        stream(fields, rs -> {
+            generator.writeStartObject();
+            for (int i = 0; i < fields.size(); i++) {
+                generator.writeFieldName(fields.get(i));
+                generator.writeObject(read(rs, i + 1));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        });
+        generator.flush();
+    }
+
+    private void stream(List<String> fields, RowWriter rowWriter) throws IOException {
+        try {
+            studentJdbcRepository.streamAll(fields, rs -> {
+                try {
+                    rowWriter.write(rs);
+                } catch (IOException e) {
+                    // Usually the client went away; abort the query instead of reading the rest
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            log.warn("Student export aborted: {}", e.getCause().getMessage());
+            throw e.getCause();
+        }
+    }
+
+    private static Object read(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : value;
+    }
+
+    private static void writeCsvCell(Writer writer, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+}
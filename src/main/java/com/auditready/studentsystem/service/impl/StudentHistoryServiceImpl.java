@@ -0,0 +1,159 @@
+package com.auditready.studentsystem.service.impl;
+
+import com.auditready.studentsystem.audit.AuditArchive;
+import com.auditready.studentsystem.audit.AuditHistoryReconstructor;
+import com.auditready.studentsystem.audit.AuditPayloadType;
+import com.auditready.studentsystem.dto.StudentDto;
+import com.auditready.studentsystem.entity.AuditLog;
+import com.auditready.studentsystem.exception.StudentNotFoundException;
+import com.auditready.studentsystem.repository.AuditLogRepository;
+import com.auditready.studentsystem.service.StudentHistoryService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Rebuilds student state at a point in time from audit history. Each lookup starts at the
+ * nearest checkpoint (a snapshot or legacy full row) at or before the requested instant and
+ * replays only the deltas after it. Results are cached by the id of the last audit row that
+ * applies, since the state after a given audit row never changes. Students with archived
+ * audit rows are replayed from their merged archived and hot history instead.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class StudentHistoryServiceImpl implements StudentHistoryService {
+
+    private static final String ENTITY_NAME = "STUDENT";
+    private static final int CACHE_SIZE = 10_000;
+
+    private final AuditLogRepository auditLogRepository;
+    private final AuditHistoryReconstructor reconstructor;
+    private final AuditArchive auditArchive;
+    private final ObjectMapper objectMapper;
+
+    // Keyed by audit row id; an empty Optional means the student did not exist after that row
+    private final Map<Long, Optional<StudentDto>> stateCache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Optional<StudentDto>> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    @Override
+    public StudentDto getStudentAsOf(Long id, LocalDateTime asOf) {
+        log.info("Reconstructing student {} as of {}", id, asOf);
+        return reconstruct(id, asOf)
+                .orElseThrow(() -> new StudentNotFoundException("Student " + id + " did not exist at " + asOf));
+    }
+
+    @Override
+    public List<StudentDto> getDepartmentAsOf(String department, LocalDateTime asOf) {
+        log.info("Reconstructing department {} as of {}", department, asOf);
+        List<StudentDto> students = new ArrayList<>();
+        Set<Long> ids = new LinkedHashSet<>(auditLogRepository.findEntityIdsChangedUpTo(ENTITY_NAME, asOf));
+        ids.addAll(auditArchive.entityIdsChangedUpTo(ENTITY_NAME, asOf));
+        for (Long id : ids) {
+            reconstruct(id, asOf)
+                    .filter(student -> department.equalsIgnoreCase(student.department()))
+                    .ifPresent(students::add);
+        }
+        students.sort(Comparator.comparing(StudentDto::id));
+        return students;
+    }
+
+    private Optional<StudentDto> reconstruct(Long id, LocalDateTime asOf) {
+        if (auditArchive.contains(ENTITY_NAME, id)) {
+            return reconstructWithArchive(id, asOf);
+        }
+        List<Long> latest = auditLogRepository.findLatestIdAsOf(ENTITY_NAME, id, asOf, PageRequest.of(0, 1));
+        if (latest.isEmpty()) {
+            return Optional.empty();
+        }
+        Long lastRowId = latest.get(0);
+        synchronized (stateCache) {
+            Optional<StudentDto> cached = stateCache.get(lastRowId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        List<AuditLog> checkpoints = auditLogRepository.findCheckpoints(ENTITY_NAME, id, asOf, PageRequest.of(0, 1));
+        if (checkpoints.isEmpty()) {
+            log.warn("No audit checkpoint for student {} at or before {}", id, asOf);
+            return Optional.empty();
+        }
+        AuditLog checkpoint = checkpoints.get(0);
+        List<AuditLog> rows = new ArrayList<>();
+        rows.add(checkpoint);
+        rows.addAll(auditLogRepository.findChangesAfter(ENTITY_NAME, id, checkpoint.getChangedAt(),
+                checkpoint.getId(), asOf));
+
+        List<AuditLog> replayed = reconstructor.reconstruct(rows);
+        Optional<StudentDto> state = Optional.ofNullable(toDto(replayed.get(replayed.size() - 1).getNewValues()));
+        synchronized (stateCache) {
+            stateCache.put(lastRowId, state);
+        }
+        return state;
+    }
+
+    private Optional<StudentDto> reconstructWithArchive(Long id, LocalDateTime asOf) {
+        List<AuditLog> history = auditArchive.entityHistory(ENTITY_NAME, id);
+        int end = 0;
+        while (end < history.size() && !history.get(end).getChangedAt().isAfter(asOf)) {
+            end++;
+        }
+        if (end == 0) {
+            return Optional.empty();
+        }
+        Long lastRowId = history.get(end - 1).getId();
+        synchronized (stateCache) {
+            Optional<StudentDto> cached = stateCache.get(lastRowId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // Replay from the newest checkpoint (snapshot or legacy full row) at or before asOf
+        int checkpoint = end - 1;
+        while (checkpoint >= 0 && AuditPayloadType.DELTA.equals(history.get(checkpoint).getPayloadType())) {
+            checkpoint--;
+        }
+        if (checkpoint < 0) {
+            log.warn("No audit checkpoint for student {} at or before {}", id, asOf);
+            return Optional.empty();
+        }
+        List<AuditLog> replayed = reconstructor.reconstruct(history.subList(checkpoint, end));
+        Optional<StudentDto> state = Optional.ofNullable(toDto(replayed.get(replayed.size() - 1).getNewValues()));
+        synchronized (stateCache) {
+            stateCache.put(lastRowId, state);
+        }
+        return state;
+    }
+
+    private StudentDto toDto(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, StudentDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable student snapshot in audit history", e);
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.auditready.studentsystem.service.impl;
+
+import com.auditready.studentsystem.audit.HibernateAuditListener;
+import com.auditready.studentsystem.dto.ImportReport;
+import com.auditready.studentsystem.dto.StudentDto;
+import com.auditready.studentsystem.entity.Student;
+import com.auditready.studentsystem.event.StudentChangedEvent;
+import com.auditready.studentsystem.mapper.StudentMapper;
+import com.auditready.studentsystem.repository.StudentJdbcRepository;
+import com.auditready.studentsystem.repository.StudentRepository;
+import com.auditready.studentsystem.service.StudentImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streams an import file line by line, validating each row as it arrives and writing
+ * accepted rows in JDBC batches, one transaction per batch. Only the current batch and
+ * the (capped) error list are held in memory.
+ */
+@Slf4j
+@Service
+public class StudentImportServiceImpl implements StudentImportService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final StudentRepository studentRepository;
+    private final StudentJdbcRepository studentJdbcRepository;
+    private final HibernateAuditListener auditListener;
+    private final StudentMapper studentMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuditorAware<String> auditorProvider;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public StudentImportServiceImpl(StudentRepository studentRepository,
+            StudentJdbcRepository studentJdbcRepository, HibernateAuditListener auditListener, StudentMapper studentMapper,
+            ApplicationEventPublisher eventPublisher, AuditorAware<String> auditorProvider, Validator validator, ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${student.import.batch-size:500}") int batchSize) {
+        this.studentRepository = studentRepository;
+        this.studentJdbcRepository = studentJdbcRepository;
+        this.auditListener = auditListener;
+        this.studentMapper = studentMapper;
+        this.eventPublisher = eventPublisher;
+        this.auditorProvider = auditorProvider;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public ImportReport importCsv(InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            throw new IllegalArgumentException("CSV import requires a header row");
+        }
+        Map<String, Integer> header = new HashMap<>();
+        List<String> headerCells = parseCsvLine(headerLine);
+        for (int i = 0; i < headerCells.size(); i++) {
+            header.put(headerCells.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!header.containsKey("name") || !header.containsKey("email")) {
+            throw new IllegalArgumentException("CSV header must contain at least name and email columns");
+        }
+        return importLines(reader, 2, line -> toDto(parseCsvLine(line), header));
+    }
+
+    @Override
+    public ImportReport importNdjson(InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        return importLines(reader, 1, line -> {
+            try {
+                return objectMapper.readValue(line, StudentDto.class);
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+            }
+        });
+    }
+
+    private ImportReport importLines(BufferedReader reader, long firstLine, Function<String, StudentDto> parser)
+            throws IOException {
+        long started = System.nanoTime();
+        ImportState state = new ImportState();
+        List<PendingRow> batch = new ArrayList<>(batchSize);
+        long lineNumber = firstLine - 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            state.total++;
+            StudentDto dto;
+            try {
+                dto = parser.apply(line);
+            } catch (IllegalArgumentException e) {
+                state.fail(lineNumber, e.getMessage());
+                continue;
+            }
+            Set<ConstraintViolation<StudentDto>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                state.fail(lineNumber, violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                continue;
+            }
+            batch.add(new PendingRow(lineNumber, dto));
+            if (batch.size() >= batchSize) {
+                flush(batch, state);
+                batch.clear();
+            }
+        }
+        flush(batch, state);
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        log.info("Imported {} of {} students in {} ms", state.imported, state.total, elapsedMs);
+        return new ImportReport(state.total, state.imported, state.failed, state.errors,
+                state.failed > state.errors.size(), elapsedMs, state.imported * 1000.0 / elapsedMs);
+    }
+
+    private void flush(List<PendingRow> batch, ImportState state) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        // Reject duplicates inside the batch and against existing rows with one IN query
+        Set<String> seen = new HashSet<>();
+        List<PendingRow> unique = new ArrayList<>(batch.size());
+        for (PendingRow row : batch) {
+            if (seen.add(row.dto().email().toLowerCase(Locale.ROOT))) {
+                unique.add(row);
+            } else {
+                state.fail(row.line(), "Duplicate email in import: " + row.dto().email());
+            }
+        }
+        Set<String> existing = studentRepository
+                .findExistingEmails(unique.stream().map(row -> row.dto().email()).toList())
+                .stream()
+                .map(email -> email.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+
+        List<PendingRow> accepted = new ArrayList<>(unique.size());
+        for (PendingRow row : unique) {
+            if (existing.contains(row.dto().email().toLowerCase(Locale.ROOT))) {
+                state.fail(row.line(), "Email already exists: " + row.dto().email());
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        String auditor = auditorProvider.getCurrentAuditor().orElse("SYSTEM");
+        LocalDateTime now = LocalDateTime.now();
+        List<Student> students = accepted.stream().map(row -> toEntity(row.dto(), auditor, now)).toList();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                studentJdbcRepository.insertAll(students);
+                // JDBC inserts raise no Hibernate events, so they are audited explicitly; the
+                // records are queued and written in batches once this transaction commits
+                for (Student student : students) {
+                    auditListener.recordInsert(student);
+                    eventPublisher.publishEvent(StudentChangedEvent.created(studentMapper.toDto(student)));
+                }
+            });
+            state.imported += students.size();
+        } catch (RuntimeException e) {
+            log.warn("Import batch of {} rows failed", students.size(), e);
+            for (PendingRow row : accepted) {
+                state.fail(row.line(), "Batch insert failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private static Student toEntity(StudentDto dto, String auditor, LocalDateTime now) {
+        Student student = Student.builder()
+                .name(dto.name())
+                .email(dto.email())
+                .phone(dto.phone())
+                .department(dto.department())
+                .year(dto.year())
+                .address(dto.address())
+                .cgpa(dto.cgpa())
+                // Matches the column default the JDBC insert relies on
+                .version(0L)
+                .build();
+        student.setCreatedAt(now);
+        student.setUpdatedAt(now);
+        student.setCreatedBy(auditor);
+        student.setUpdatedBy(auditor);
+        return student;
+    }
+
+    private static StudentDto toDto(List<String> cells, Map<String, Integer> header) {
+        try {
+            String year = cell(cells, header, "year");
+            String cgpa = cell(cells, header, "cgpa");
+            return new StudentDto(null,
+                    cell(cells, header, "name"),
+                    cell(cells, header, "email"),
+                    cell(cells, header, "phone"),
+                    cell(cells, header, "department"),
+                    year == null ? null : Integer.valueOf(year),
+                    cell(cells, header, "address"),
+                    cgpa == null ? null : Double.valueOf(cgpa),
+                    null, null, null, null);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number: " + e.getMessage());
+        }
+    }
+
+    private static String cell(List<String> cells, Map<String, Integer> header, String column) {
+        Integer index = header.get(column);
+        if (index == null || index >= cells.size()) {
+            return null;
+        }
+        String value = cells.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // RFC 4180 style: comma separated, double quotes around fields, "" for a literal quote
+    private static List<String> parseCsvLine(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        cells.add(current.toString());
+        return cells;
+    }
+
+    private record PendingRow(long line, StudentDto dto) {
+    }
+
+    private static final class ImportState {
+        private long total;
+        private long imported;
+        private long failed;
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+
+        private void fail(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportReport.RowError(line, message));
+            }
+        }
+    }
+}
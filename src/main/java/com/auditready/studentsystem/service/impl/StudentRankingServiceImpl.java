@@ -0,0 +1,72 @@
+package com.auditready.studentsystem.service.impl;
+
+import com.auditready.studentsystem.analytics.StudentRanking;
+import com.auditready.studentsystem.dto.RankedStudent;
+import com.auditready.studentsystem.exception.StudentNotFoundException;
+import com.auditready.studentsystem.repository.StudentRepository;
+import com.auditready.studentsystem.service.StudentRankingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class StudentRankingServiceImpl implements StudentRankingService {
+
+    private static final int MAX_LIMIT = 500;
+
+    private final StudentRanking ranking;
+    private final StudentRepository studentRepository;
+
+    @Override
+    public List<RankedStudent> getTop(String department, int limit) {
+        requireReady();
+        return ranking.slice(normalize(department), 0, clamp(limit));
+    }
+
+    @Override
+    public RankedStudent getRank(Long studentId, boolean withinDepartment) {
+        requireReady();
+        return ranking.rankOf(studentId, withinDepartment).orElseThrow(() -> {
+            if (studentRepository.existsById(studentId)) {
+                return new IllegalArgumentException("Student " + studentId + " has no CGPA and is not ranked");
+            }
+            return new StudentNotFoundException("Student not found with id: " + studentId);
+        });
+    }
+
+    @Override
+    public List<RankedStudent> getPercentileRange(String department, double fromPercentile, double toPercentile,
+            int limit) {
+        if (fromPercentile < 0 || toPercentile > 100 || fromPercentile > toPercentile) {
+            throw new IllegalArgumentException("Percentiles must satisfy 0 <= from <= to <= 100");
+        }
+        requireReady();
+        String key = normalize(department);
+        int n = ranking.size(key);
+        // The student at position i (0-based) has percentile 100 * (n - 1 - i) / n, so the band
+        // [from, to] is a contiguous run of positions
+        int start = Math.max(0, (int) Math.ceil(n - 1 - toPercentile * n / 100));
+        int end = (int) Math.floor(n - 1 - fromPercentile * n / 100) + 1;
+        if (start >= end) {
+            return List.of();
+        }
+        return ranking.slice(key, start, Math.min(end, start + clamp(limit)));
+    }
+
+    private void requireReady() {
+        if (!ranking.isReady()) {
+            throw new IllegalStateException("Student ranking is still building");
+        }
+    }
+
+    private static String normalize(String department) {
+        return StringUtils.hasText(department) ? department.trim() : null;
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+}
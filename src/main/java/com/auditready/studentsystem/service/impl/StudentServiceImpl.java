@@ -1,20 +1,46 @@
 package com.auditready.studentsystem.service.impl;
 
+import com.auditready.studentsystem.analytics.StudentStatisticsRollup;
+import com.auditready.studentsystem.config.CacheConfig;
+import com.auditready.studentsystem.dto.CountMode;
+import com.auditready.studentsystem.dto.CursorPage;
+import com.auditready.studentsystem.dto.DepartmentStatistics;
 import com.auditready.studentsystem.dto.StudentDto;
+import com.auditready.studentsystem.dto.StudentFilter;
+import com.auditready.studentsystem.dto.StudentSearchHit;
 import com.auditready.studentsystem.entity.Student;
+import com.auditready.studentsystem.event.AuditedEntityUpdatedEvent;
+import com.auditready.studentsystem.event.StudentChangedEvent;
+import com.auditready.studentsystem.exception.PreconditionFailedException;
 import com.auditready.studentsystem.exception.StudentNotFoundException;
 import com.auditready.studentsystem.mapper.StudentMapper;
 import com.auditready.studentsystem.repository.StudentRepository;
+import com.auditready.studentsystem.repository.StudentSpecifications;
+import com.auditready.studentsystem.repository.UserRepository;
+import com.auditready.studentsystem.search.StudentSearchIndex;
 import com.auditready.studentsystem.service.StudentService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -23,19 +49,23 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class StudentServiceImpl implements StudentService {
 
+    private static final int MAX_SCROLL_SIZE = 500;
+
     private final StudentRepository studentRepository;
     private final StudentMapper studentMapper;
-    private final com.auditready.studentsystem.service.AuditService auditService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final StudentSearchIndex searchIndex;
+    private final UserRepository userRepository;
+    private final StudentStatisticsRollup statisticsRollup;
 
     @Override
     public List<StudentDto> getAllStudents() {
         log.info("Fetching all students");
-        return studentRepository.findAll().stream()
-                .map(studentMapper::toDto)
-                .collect(Collectors.toList());
+        return studentRepository.findDtos(null);
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.STUDENTS_BY_ID, key = "#id")
     public StudentDto getStudentById(Long id) {
         log.info("Fetching student with id: {}", id);
         return studentRepository.findById(id)
@@ -44,6 +74,7 @@ public class StudentServiceImpl implements StudentService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.STUDENTS_BY_EMAIL, key = "#email")
     public StudentDto getStudentByEmail(String email) {
         log.info("Fetching student with email: {}", email);
         return studentRepository.findByEmail(email)
@@ -51,6 +82,14 @@ public class StudentServiceImpl implements StudentService {
                 .orElseThrow(() -> new StudentNotFoundException("Student not found with email: " + email));
     }
 
+    @Override
+    public StudentDto getStudentForUser(String username) {
+        log.info("Fetching student linked to user: {}", username);
+        return studentRepository.findLinkedToUser(username)
+                .map(studentMapper::toDto)
+                .orElseThrow(() -> new StudentNotFoundException("No student record linked to user: " + username));
+    }
+
     @Override
     @Transactional
     public StudentDto createStudent(StudentDto studentDto) {
@@ -58,28 +97,21 @@ public class StudentServiceImpl implements StudentService {
         Student student = studentMapper.toEntity(studentDto);
         Student savedStudent = studentRepository.save(student);
 
-        auditService.logCreate("STUDENT", savedStudent.getId(), savedStudent);
-
-        return studentMapper.toDto(savedStudent);
+        StudentDto created = studentMapper.toDto(savedStudent);
+        eventPublisher.publishEvent(StudentChangedEvent.created(created));
+        return created;
     }
 
     @Override
     @Transactional
-    public StudentDto updateStudent(Long id, StudentDto studentDto) {
+    public StudentDto updateStudent(Long id, StudentDto studentDto, Long expectedVersion) {
         log.info("Updating student with id: {}", id);
         Student existingStudent = studentRepository.findById(id)
                 .orElseThrow(() -> new StudentNotFoundException("Student not found with id: " + id));
-
-        // Create a copy for auditing
-        Student oldStudent = Student.builder()
-                .name(existingStudent.getName())
-                .email(existingStudent.getEmail())
-                .phone(existingStudent.getPhone())
-                .department(existingStudent.getDepartment())
-                .year(existingStudent.getYear())
-                .address(existingStudent.getAddress())
-                .cgpa(existingStudent.getCgpa())
-                .build();
+        if (expectedVersion != null && !expectedVersion.equals(existingStudent.getVersion())) {
+            throw new PreconditionFailedException("Student " + id + " was modified by someone else (current version "
+                    + existingStudent.getVersion() + ")");
+        }
 
         // updating fields
         existingStudent.setName(studentDto.name());
@@ -92,11 +124,45 @@ public class StudentServiceImpl implements StudentService {
 
         Student updatedStudent = studentRepository.save(existingStudent);
 
-        auditService.logUpdate("STUDENT", id, oldStudent, updatedStudent);
+        // Flush so the update is audited and its change event published now, and the returned
+        // DTO carries the new version; a concurrent writer since the read fails here
+        try {
+            studentRepository.flush();
+        } catch (OptimisticLockingFailureException e) {
+            if (expectedVersion != null) {
+                throw new PreconditionFailedException("Student " + id + " was modified by someone else");
+            }
+            throw e;
+        }
 
         return studentMapper.toDto(updatedStudent);
     }
 
+    /**
+     * Publishes flushed student updates, taking the old values from the state Hibernate
+     * loaded rather than from a copy made before the change.
+     */
+    @EventListener
+    public void onAuditedEntityUpdated(AuditedEntityUpdatedEvent event) {
+        if (!(event.entity() instanceof Student student)) {
+            return;
+        }
+        StudentDto after = studentMapper.toDto(student);
+        StudentDto before = new StudentDto(after.id(),
+                (String) event.oldValue("name"),
+                (String) event.oldValue("email"),
+                (String) event.oldValue("phone"),
+                (String) event.oldValue("department"),
+                (Integer) event.oldValue("year"),
+                (String) event.oldValue("address"),
+                (Double) event.oldValue("cgpa"),
+                (LocalDateTime) event.oldValue("createdAt"),
+                (LocalDateTime) event.oldValue("updatedAt"),
+                (String) event.oldValue("createdBy"),
+                (Long) event.oldValue("version"));
+        eventPublisher.publishEvent(StudentChangedEvent.updated(before, after));
+    }
+
     @Override
     @Transactional
     public void deleteStudent(Long id) {
@@ -104,36 +170,99 @@ public class StudentServiceImpl implements StudentService {
         Student student = studentRepository.findById(id)
                 .orElseThrow(() -> new StudentNotFoundException("Student not found with id: " + id));
 
-        auditService.logDelete("STUDENT", id, student);
+        eventPublisher.publishEvent(StudentChangedEvent.deleted(studentMapper.toDto(student)));
 
-        studentRepository.deleteById(id);
+        userRepository.unlinkStudent(id, LocalDateTime.now());
+        studentRepository.delete(student);
     }
 
     @Override
     public Page<StudentDto> getAllStudents(Pageable pageable) {
         log.info("Fetching students with pagination: {}", pageable);
-        return studentRepository.findAll(pageable)
-                .map(studentMapper::toDto);
+        return studentRepository.findDtoPage(null, pageable);
     }
 
     @Override
-    public Page<StudentDto> searchStudents(String name, String email, Pageable pageable) {
-        log.info("Searching students with name: {} and email: {}", name, email);
-        boolean hasName = StringUtils.hasText(name);
-        boolean hasEmail = StringUtils.hasText(email);
-
-        Page<Student> students;
-        if (hasName && hasEmail) {
-            students = studentRepository.findByNameContainingIgnoreCaseAndEmailContainingIgnoreCase(name, email,
-                    pageable);
-        } else if (hasName) {
-            students = studentRepository.findByNameContainingIgnoreCase(name, pageable);
-        } else if (hasEmail) {
-            students = studentRepository.findByEmailContainingIgnoreCase(email, pageable);
-        } else {
-            students = studentRepository.findAll(pageable);
+    public Page<StudentDto> searchStudents(StudentFilter filter, Pageable pageable) {
+        log.info("Searching students with {}", filter);
+        if (filter.minCgpa() != null && filter.maxCgpa() != null && filter.minCgpa() > filter.maxCgpa()) {
+            throw new IllegalArgumentException("minCgpa must not be greater than maxCgpa");
+        }
+        String name = filter.name();
+        String email = filter.email();
+        boolean textOnly = !StringUtils.hasText(filter.department()) && filter.year() == null
+                && filter.minCgpa() == null && filter.maxCgpa() == null;
+
+        // Relevance-ordered results come from the in-memory index; explicit sorts, structured
+        // filters and terms too short for its trigrams still go to the database
+        if (textOnly && (StringUtils.hasText(name) || StringUtils.hasText(email)) && searchIndex.isReady()
+                && searchIndex.covers(name, email) && pageable.getSort().isUnsorted()) {
+            List<Long> ids = searchIndex.matchAll(name, email);
+            int from = (int) Math.min(pageable.getOffset(), ids.size());
+            List<Long> pageIds = ids.subList(from, Math.min(from + pageable.getPageSize(), ids.size()));
+            Map<Long, StudentDto> byId = studentRepository.findDtosByIds(pageIds).stream()
+                    .collect(Collectors.toMap(StudentDto::id, Function.identity()));
+            List<StudentDto> content = pageIds.stream()
+                    .map(byId::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+            return new PageImpl<>(content, pageable, ids.size());
         }
 
-        return students.map(studentMapper::toDto);
+        return studentRepository.findDtoPage(StudentSpecifications.matching(filter), pageable);
+    }
+
+    @Override
+    public CursorPage<StudentDto> scrollStudents(String name, String email, String cursor, int size,
+            CountMode countMode) {
+        log.info("Scrolling students with name: {} and email: {} after cursor: {}", name, email, cursor);
+        int pageSize = Math.max(1, Math.min(size, MAX_SCROLL_SIZE));
+        long afterId = 0;
+        if (StringUtils.hasText(cursor)) {
+            try {
+                afterId = Long.parseLong(CursorPage.decodeCursor(cursor, 1)[0]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+        boolean filtered = StringUtils.hasText(name) || StringUtils.hasText(email);
+        Specification<Student> spec = filtered
+                ? StudentSpecifications.matching(new StudentFilter(name, email, null, null, null, null))
+                : null;
+
+        // Read one extra row to learn whether another page exists
+        List<StudentDto> rows = studentRepository.findDtosAfter(spec, afterId, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<StudentDto> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore ? CursorPage.encodeCursor(items.get(items.size() - 1).id()) : null;
+
+        Long total = switch (countMode) {
+            case NONE -> null;
+            // Table statistics are only meaningful for the unfiltered listing
+            case APPROXIMATE -> filtered ? null : studentRepository.estimateRowCount();
+            case EXACT -> filtered ? studentRepository.count(spec) : studentRepository.count();
+        };
+        return new CursorPage<>(items, nextCursor, hasMore, total);
+    }
+
+    @Override
+    public List<DepartmentStatistics> getDepartmentStatistics() {
+        // Served from incrementally maintained rollups, never a table scan
+        return statisticsRollup.getStatistics();
+    }
+
+    @Override
+    public List<StudentSearchHit> quickSearch(String query, String fields, int limit) {
+        if (!searchIndex.isReady()) {
+            throw new IllegalStateException("Search index is still building");
+        }
+        Set<StudentSearchIndex.Field> selected = EnumSet.allOf(StudentSearchIndex.Field.class);
+        if (StringUtils.hasText(fields)) {
+            selected = EnumSet.noneOf(StudentSearchIndex.Field.class);
+            for (String field : fields.split(",")) {
+                selected.add(StudentSearchIndex.Field.valueOf(field.trim().toUpperCase(Locale.ROOT)));
+            }
+        }
+        return searchIndex.search(query, selected, Math.max(1, Math.min(limit, MAX_SCROLL_SIZE)));
     }
 }
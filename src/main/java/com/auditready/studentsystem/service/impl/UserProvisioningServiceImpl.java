@@ -0,0 +1,255 @@
+package com.auditready.studentsystem.service.impl;
+
+import com.auditready.studentsystem.audit.HibernateAuditListener;
+import com.auditready.studentsystem.dto.ImportReport;
+import com.auditready.studentsystem.dto.RegisterRequest;
+import com.auditready.studentsystem.entity.Role;
+import com.auditready.studentsystem.entity.User;
+import com.auditready.studentsystem.repository.StudentRepository;
+import com.auditready.studentsystem.repository.UserJdbcRepository;
+import com.auditready.studentsystem.repository.UserRepository;
+import com.auditready.studentsystem.service.UserProvisioningService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+/**
+ * Creates user accounts from an NDJSON stream of {@link RegisterRequest}s. Rows are
+ * validated as they arrive; each batch is checked for clashes with one query, hashed in
+ * parallel on a dedicated bounded pool and inserted with one JDBC batch in its own
+ * transaction.
+ */
+@Slf4j
+@Service
+public class UserProvisioningServiceImpl implements UserProvisioningService {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final UserRepository userRepository;
+    private final UserJdbcRepository userJdbcRepository;
+    private final StudentRepository studentRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final HibernateAuditListener auditListener;
+    private final AuditorAware<String> auditorProvider;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool hashPool;
+    private final int batchSize;
+
+    public UserProvisioningServiceImpl(UserRepository userRepository, UserJdbcRepository userJdbcRepository,
+            StudentRepository studentRepository, PasswordEncoder passwordEncoder, HibernateAuditListener auditListener,
+            AuditorAware<String> auditorProvider, Validator validator, ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${user.provisioning.batch-size:500}") int batchSize,
+            @Value("${user.provisioning.hash-parallelism:0}") int hashParallelism) {
+        this.userRepository = userRepository;
+        this.userJdbcRepository = userJdbcRepository;
+        this.studentRepository = studentRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.auditListener = auditListener;
+        this.auditorProvider = auditorProvider;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        // Separate from the login hashing pool, and capped below the core count, so a large
+        // provisioning run cannot starve logins or ordinary requests
+        int parallelism = hashParallelism > 0 ? hashParallelism
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.hashPool = new ForkJoinPool(parallelism);
+    }
+
+    @Override
+    public ImportReport provisionNdjson(InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        long started = System.nanoTime();
+        ProvisionState state = new ProvisionState();
+        List<PendingUser> batch = new ArrayList<>(batchSize);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            state.total++;
+            RegisterRequest request;
+            Role role;
+            try {
+                request = objectMapper.readValue(line, RegisterRequest.class);
+            } catch (JsonProcessingException e) {
+                state.fail(lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            Set<ConstraintViolation<RegisterRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                state.fail(lineNumber, violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                continue;
+            }
+            try {
+                role = Role.valueOf(request.role().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                state.fail(lineNumber, "Unknown role: " + request.role());
+                continue;
+            }
+            batch.add(new PendingUser(lineNumber, request, role));
+            if (batch.size() >= batchSize) {
+                flush(batch, state);
+                batch.clear();
+            }
+        }
+        flush(batch, state);
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - started) / 1_000_000);
+        log.info("Provisioned {} of {} users in {} ms", state.created, state.total, elapsedMs);
+        return new ImportReport(state.total, state.created, state.failed, state.errors,
+                state.failed > state.errors.size(), elapsedMs, state.created * 1000.0 / elapsedMs);
+    }
+
+    private void flush(List<PendingUser> batch, ProvisionState state) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        // Duplicates inside the batch first, then one set-based query against existing accounts
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<PendingUser> unique = new ArrayList<>(batch.size());
+        for (PendingUser row : batch) {
+            if (!seenUsernames.add(lower(row.request().username()))) {
+                state.fail(row.line(), "Duplicate username in request: " + row.request().username());
+            } else if (!seenEmails.add(lower(row.request().email()))) {
+                state.fail(row.line(), "Duplicate email in request: " + row.request().email());
+            } else {
+                unique.add(row);
+            }
+        }
+        if (unique.isEmpty()) {
+            return;
+        }
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> takenEmails = new HashSet<>();
+        for (Object[] clash : userRepository.findClashes(
+                unique.stream().map(row -> row.request().username()).toList(),
+                unique.stream().map(row -> row.request().email()).toList())) {
+            takenUsernames.add(lower((String) clash[0]));
+            takenEmails.add(lower((String) clash[1]));
+        }
+        List<PendingUser> accepted = new ArrayList<>(unique.size());
+        for (PendingUser row : unique) {
+            if (takenUsernames.contains(lower(row.request().username()))) {
+                state.fail(row.line(), "Username already exists: " + row.request().username());
+            } else if (takenEmails.contains(lower(row.request().email()))) {
+                state.fail(row.line(), "Email already exists: " + row.request().email());
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        // Student accounts are linked to existing student records in the same pass
+        List<String> studentEmails = accepted.stream()
+                .filter(row -> row.role() == Role.STUDENT)
+                .map(row -> row.request().email())
+                .toList();
+        Map<String, Long> studentIds = new HashMap<>();
+        if (!studentEmails.isEmpty()) {
+            for (Object[] match : studentRepository.findIdsByEmails(studentEmails)) {
+                studentIds.put(lower((String) match[0]), (Long) match[1]);
+            }
+        }
+
+        // A parallel stream started inside the pool runs on the pool's workers only
+        List<String> hashes = hashPool.submit(() -> accepted.parallelStream()
+                .map(row -> passwordEncoder.encode(row.request().password()))
+                .toList()).join();
+
+        String auditor = auditorProvider.getCurrentAuditor().orElse("SYSTEM");
+        LocalDateTime now = LocalDateTime.now();
+        List<User> users = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            PendingUser row = accepted.get(i);
+            User user = User.builder()
+                    .username(row.request().username())
+                    .password(hashes.get(i))
+                    .email(row.request().email())
+                    .role(row.role())
+                    .studentId(row.role() == Role.STUDENT ? studentIds.get(lower(row.request().email())) : null)
+                    .build();
+            user.setCreatedAt(now);
+            user.setUpdatedAt(now);
+            user.setCreatedBy(auditor);
+            user.setUpdatedBy(auditor);
+            users.add(user);
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userJdbcRepository.insertAll(users);
+                // Audited like a JPA insert, with the password hash redacted
+                users.forEach(auditListener::recordInsert);
+            });
+            state.created += users.size();
+        } catch (RuntimeException e) {
+            log.warn("Provisioning batch of {} users failed", users.size(), e);
+            for (PendingUser row : accepted) {
+                state.fail(row.line(), "Batch insert failed: " + e.getMessage());
+            }
+        }
+    }
+
+    private static String lower(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    @PreDestroy
+    void stop() {
+        hashPool.shutdownNow();
+    }
+
+    private record PendingUser(long line, RegisterRequest request, Role role) {
+    }
+
+    private static final class ProvisionState {
+        private long total;
+        private long created;
+        private long failed;
+        private final List<ImportReport.RowError> errors = new ArrayList<>();
+
+        private void fail(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new ImportReport.RowError(line, message));
+            }
+        }
+    }
+}
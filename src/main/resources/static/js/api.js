@@ -1,7 +1,7 @@
 const API_BASE = '/api/v1';
 
 const api = {
-    async request(endpoint, options = {}) {
+    async request(endpoint, options = {}, retried = false) {
         const token = localStorage.getItem('token');
         const headers = {
             'Content-Type': 'application/json',
@@ -17,6 +17,12 @@ const api = {
             headers
         });
 
+        // Access tokens are short-lived: renew once with the refresh token and replay the request
+        if ((response.status === 401 || response.status === 403) && token && !retried
+                && !endpoint.startsWith('/auth/') && await api.refreshTokens()) {
+            return api.request(endpoint, options, true);
+        }
+
         const result = await response.json();
 
         if (!response.ok) {
@@ -26,6 +32,31 @@ const api = {
         return result;
     },
 
+    async refreshTokens() {
+        const refreshToken = localStorage.getItem('refreshToken');
+        if (!refreshToken) return false;
+        // Concurrent 401s share one refresh; the server accepts each refresh token only once
+        if (!api.pendingRefresh) {
+            api.pendingRefresh = fetch(`${API_BASE}/auth/refresh`, {
+                method: 'POST',
+                headers: { 'Content-Type': 'application/json' },
+                body: JSON.stringify({ refreshToken })
+            }).then(async (response) => {
+                if (!response.ok) {
+                    localStorage.removeItem('refreshToken');
+                    return false;
+                }
+                const result = await response.json();
+                localStorage.setItem('token', result.data.token);
+                localStorage.setItem('refreshToken', result.data.refreshToken);
+                return true;
+            }).catch(() => false).finally(() => {
+                api.pendingRefresh = null;
+            });
+        }
+        return api.pendingRefresh;
+    },
+
     auth: {
         login: (credentials) => api.request('/auth/login', {
             method: 'POST',
@@ -35,6 +66,10 @@ const api = {
             method: 'POST',
             body: JSON.stringify(details)
         }),
+        logout: (refreshToken) => api.request('/auth/logout', {
+            method: 'POST',
+            body: JSON.stringify({ refreshToken })
+        }),
         getMe: () => api.request('/auth/me')
     },
 
@@ -47,8 +82,10 @@ const api = {
             method: 'POST',
             body: JSON.stringify(data)
         }),
-        update: (id, data) => api.request(`/students/${id}`, {
+        // version is the one last read; the server rejects the update with 412 if it moved on
+        update: (id, data, version) => api.request(`/students/${id}`, {
             method: 'PUT',
+            headers: version != null ? { 'If-Match': `"${version}"` } : {},
             body: JSON.stringify(data)
         }),
         delete: (id) => api.request(`/students/${id}`, {
@@ -63,8 +100,46 @@ const api = {
         myProfile: () => api.request('/students/my-profile')
     },
     audit: {
-        getLogs: () => api.request('/audit/logs'),
-        getStudentLogs: (id) => api.request(`/audit/student/${id}`)
+        getLogs: (cursor, limit = 50) => {
+            let url = `/audit/logs?limit=${limit}`;
+            if (cursor) url += `&cursor=${encodeURIComponent(cursor)}`;
+            return api.request(url);
+        },
+        getStudentLogs: (id) => api.request(`/audit/student/${id}`),
+        // EventSource cannot send the bearer token, so the SSE stream is read with fetch
+        async stream(lastEventId, onEvent, signal) {
+            const headers = { 'Authorization': `Bearer ${localStorage.getItem('token')}` };
+            if (lastEventId) headers['Last-Event-ID'] = lastEventId;
+            const response = await fetch(`${API_BASE}/audit/stream`, { headers, signal });
+            if (!response.ok) {
+                const error = new Error('Live audit feed unavailable');
+                error.status = response.status;
+                throw error;
+            }
+            const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+            let buffer = '';
+            while (true) {
+                const { value, done } = await reader.read();
+                if (done) return;
+                buffer += value;
+                let boundary;
+                while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+                    const block = buffer.slice(0, boundary);
+                    buffer = buffer.slice(boundary + 2);
+                    const event = { id: null, name: 'message', data: '' };
+                    block.split('\n').forEach(line => {
+                        if (line.startsWith(':')) return;
+                        const colon = line.indexOf(':');
+                        const field = colon < 0 ? line : line.slice(0, colon);
+                        const fieldValue = colon < 0 ? '' : line.slice(colon + 1).replace(/^ /, '');
+                        if (field === 'id') event.id = fieldValue;
+                        else if (field === 'event') event.name = fieldValue;
+                        else if (field === 'data') event.data += (event.data ? '\n' : '') + fieldValue;
+                    });
+                    if (event.data) onEvent(event);
+                }
+            }
+        }
     }
 };
 
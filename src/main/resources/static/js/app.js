@@ -3,9 +3,14 @@ const app = {
         currentPage: 0,
         pageSize: 5,
         searchName: '',
-        searchEmail: ''
+        searchEmail: '',
+        auditLogs: [],
+        lastAuditEventId: null,
+        editingVersion: null
     },
 
+    auditStream: null,
+
     init() {
         this.bindEvents();
         if (localStorage.getItem('token')) {
@@ -130,6 +135,7 @@ const app = {
         form.reset();
         document.getElementById('student-id').value = '';
         title.textContent = 'Add Student';
+        this.state.editingVersion = student ? student.version : null;
 
         if (student) {
             title.textContent = 'Edit Student';
@@ -171,7 +177,7 @@ const app = {
 
         try {
             if (id) {
-                await api.students.update(id, data);
+                await api.students.update(id, data, this.state.editingVersion);
             } else {
                 await api.students.create(data);
             }
@@ -208,6 +214,7 @@ const app = {
         const auditBtn = document.getElementById('view-audit-btn');
 
         if (view === 'records') {
+            this.stopAuditStream();
             recordsView.classList.remove('hidden');
             auditView.classList.add('hidden');
             recordsBtn.style.color = 'var(--primary)';
@@ -231,13 +238,51 @@ const app = {
             container.innerHTML = '<div style="text-align: center; padding: 2rem;">Loading logs...</div>';
 
             const result = await api.audit.getLogs();
-            this.renderAuditLogs(result.data, 'audit-list');
+            this.state.auditLogs = result.data.items;
+            this.state.lastAuditEventId = result.data.items.length ? result.data.items[0].id : null;
+            this.renderAuditLogs(this.state.auditLogs, 'audit-list');
+            this.startAuditStream();
         } catch (error) {
             console.error('Failed to load logs', error);
             document.getElementById('audit-list').innerHTML = `<div class="error-msg">${error.message}</div>`;
         }
     },
 
+    // New entries are pushed over SSE; on disconnect the stream resumes from the last event id
+    async startAuditStream() {
+        if (this.auditStream) return;
+        const controller = new AbortController();
+        this.auditStream = controller;
+        while (!controller.signal.aborted) {
+            try {
+                await api.audit.stream(this.state.lastAuditEventId, (event) => this.handleAuditEvent(event), controller.signal);
+            } catch (error) {
+                if (controller.signal.aborted) break;
+                if ((error.status === 401 || error.status === 403) && !(await api.refreshTokens())) break;
+            }
+            if (!controller.signal.aborted) await new Promise(resolve => setTimeout(resolve, 3000));
+        }
+        if (this.auditStream === controller) this.auditStream = null;
+    },
+
+    stopAuditStream() {
+        if (this.auditStream) {
+            this.auditStream.abort();
+            this.auditStream = null;
+        }
+    },
+
+    handleAuditEvent(event) {
+        if (event.name === 'reset') {
+            // Missed more than the server can replay
+            this.loadAuditLogs();
+            return;
+        }
+        this.state.lastAuditEventId = event.id;
+        this.state.auditLogs = [JSON.parse(event.data), ...this.state.auditLogs].slice(0, 200);
+        this.renderAuditLogs(this.state.auditLogs, 'audit-list');
+    },
+
     async showStudentAudit(id, name) {
         try {
             document.getElementById('audit-modal-title').textContent = `Audit History: ${name}`;
@@ -256,6 +301,18 @@ const app = {
         document.getElementById('student-audit-modal').classList.add('hidden');
     },
 
+    formatDiff(diff) {
+        // Update entries carry a JSON array of {field, old, new}; create/delete carry plain text
+        if (!diff || !diff.startsWith('[')) return diff || '';
+        try {
+            return JSON.parse(diff)
+                .map(change => `${change.field}: [${change.old}] -> [${change.new}]`)
+                .join(', ');
+        } catch (e) {
+            return diff;
+        }
+    },
+
     renderAuditLogs(logs, containerId) {
         const container = document.getElementById(containerId);
         if (logs.length === 0) {
@@ -281,7 +338,7 @@ const app = {
                             <td style="padding: 1rem; font-weight: 500;">${log.changedBy}</td>
                             <td style="padding: 1rem;">
                                 <div style="font-size: 0.9rem; font-weight: 600; color: var(--primary);">${log.entityName} #${log.entityId}</div>
-                                <div style="font-size: 0.85rem; margin-top: 0.25rem;">${log.diff}</div>
+                                <div style="font-size: 0.85rem; margin-top: 0.25rem;">${this.formatDiff(log.diff)}</div>
                             </td>
                         </tr>
                     `).join('')}
@@ -40,6 +40,7 @@ const auth = {
         try {
             const result = await api.auth.login({ username, password });
             localStorage.setItem('token', result.data.token);
+            localStorage.setItem('refreshToken', result.data.refreshToken);
             localStorage.setItem('user', result.data.username);
             localStorage.setItem('role', result.data.role);
             this.showDashboard(result.data.username, result.data.role);
@@ -66,8 +67,15 @@ const auth = {
         }
     },
 
-    handleLogout() {
+    async handleLogout() {
+        try {
+            await api.auth.logout(localStorage.getItem('refreshToken'));
+        } catch (error) {
+            // Already expired or revoked; clearing local state is enough
+        }
+        if (typeof app !== 'undefined') app.stopAuditStream();
         localStorage.removeItem('token');
+        localStorage.removeItem('refreshToken');
         localStorage.removeItem('user');
         localStorage.removeItem('role');
         this.showAuth();
@@ -1,13 +1,213 @@
 package com.auditready.studentsystem;
 
+import com.auditready.studentsystem.config.CacheConfig;
+import com.auditready.studentsystem.dto.StudentDto;
+import com.auditready.studentsystem.dto.StudentFilter;
+import com.auditready.studentsystem.entity.Student;
+import com.auditready.studentsystem.repository.StudentRepository;
+import com.auditready.studentsystem.repository.StudentSpecifications;
+import com.auditready.studentsystem.service.StudentService;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.EntityStatistics;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
 
-@SpringBootTest
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.auditready.studentsystem.AuditReadyStudentSystemApplicationTests$SqlCapture",
+        "spring.jpa.properties.hibernate.generate_statistics=true" })
 class AuditReadyStudentSystemApplicationTests {
 
+    private static final Pattern STUDENTS_TABLE = Pattern.compile("(?i)\\bfrom\\s+students\\s+(\\w+)");
+
+    private static final int PLAN_STUDENTS = 20_000;
+    private static final int PLAN_DEPARTMENTS = 20;
+    private static final String PLAN_DEPARTMENT = "Plan Dept 7";
+    private static final String PLAN_EMAIL_DOMAIN = "@plan.example.com";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @Test
     void contextLoads() {
     }
 
+    /**
+     * Every structured filter combination accepted by student search must be served by its
+     * composite index. The table is seeded with a representative spread of students and
+     * analyzed, then the SQL Hibernate generates for {@link StudentSpecifications#matching} is
+     * explained as is, so the test fails when the planner itself falls back to a full scan.
+     * A year on its own matches about a quarter of the students, where a scan is the right
+     * plan, so year filters are checked together with a CGPA range.
+     */
+    @Test
+    void studentFiltersUseIndexes() {
+        seedPlanStudents();
+        try {
+            Map<StudentFilter, String> combinations = new LinkedHashMap<>();
+            combinations.put(filter(PLAN_DEPARTMENT, null, null, null), "idx_students_department_year_cgpa");
+            combinations.put(filter(PLAN_DEPARTMENT, 2, null, null), "idx_students_department_year_cgpa");
+            combinations.put(filter(PLAN_DEPARTMENT, null, 8.0, 9.0), "idx_students_department_year_cgpa");
+            combinations.put(filter(PLAN_DEPARTMENT, 2, 8.0, 9.0), "idx_students_department_year_cgpa");
+            combinations.put(filter(null, 2, 9.0, 9.5), "idx_students_year_cgpa");
+            combinations.put(filter(null, 2, 9.5, null), "idx_students_year_cgpa");
+            combinations.put(filter(null, null, 9.0, 9.2), "idx_students_cgpa");
+
+            combinations.forEach((filter, index) -> {
+                SqlCapture.STATEMENTS.clear();
+                studentRepository.findAll(StudentSpecifications.matching(filter));
+                String sql = SqlCapture.STATEMENTS.stream()
+                        .filter(statement -> STUDENTS_TABLE.matcher(statement).find())
+                        .findFirst()
+                        .orElse(null);
+                assertNotNull(sql, () -> "No query captured for " + filter);
+
+                List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, parameters(filter));
+                Map<String, Object> access = plan.get(0);
+                assertNotEquals("ALL", access.get("type"), () -> filter + " falls back to a full scan: " + sql);
+                assertEquals(index, access.get("key"), () -> filter + " does not use " + index + ": " + access);
+            });
+        } finally {
+            jdbcTemplate.update("DELETE FROM students WHERE email LIKE ?", "%" + PLAN_EMAIL_DOMAIN);
+            jdbcTemplate.execute("ANALYZE TABLE students");
+        }
+    }
+
+    /**
+     * Student list reads select straight into {@link StudentDto}, so no {@link Student} is
+     * loaded into the persistence context. The student is inserted in the test transaction,
+     * which rolls back.
+     */
+    @Test
+    @Transactional
+    void studentListReadsLoadNoEntities() {
+        Student student = studentRepository.saveAndFlush(Student.builder()
+                .name("Projection Check").email("projection.check@example.com").department("CS").year(2).cgpa(8.4)
+                .build());
+        entityManager.clear();
+        EntityStatistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class)
+                .getStatistics().getEntityStatistics(Student.class.getName());
+        long loadsBefore = statistics.getLoadCount();
+
+        List<StudentDto> filtered = studentRepository.findDtos(
+                StudentSpecifications.matching(filter("CS", 2, null, null)));
+        List<StudentDto> page = studentRepository.findDtoPage(null, PageRequest.of(0, 1000)).getContent();
+        List<StudentDto> byId = studentRepository.findDtosByIds(List.of(student.getId()));
+        List<StudentDto> after = studentRepository.findDtosAfter(null, student.getId() - 1, 1);
+
+        for (List<StudentDto> result : List.of(filtered, byId, after)) {
+            assertTrue(result.stream().anyMatch(dto -> dto.id().equals(student.getId())),
+                    () -> "Missing student " + student.getId());
+        }
+        assertTrue(page.size() > 0);
+        assertEquals(loadsBefore, statistics.getLoadCount(), "DTO queries loaded Student entities");
+    }
+
+    /**
+     * Repeated reads of a student by id or email are answered from the cache without
+     * querying the database.
+     */
+    @Test
+    @Transactional
+    void repeatedStudentReadsSkipTheDatabase() {
+        Student student = studentRepository.saveAndFlush(Student.builder()
+                .name("Cache Check").email("cache.check@example.com").department("CS").year(2).cgpa(7.9).build());
+        entityManager.clear();
+        try {
+            assertEquals(1, studentQueries(() -> studentService.getStudentById(student.getId())));
+            assertEquals(0, studentQueries(() -> studentService.getStudentById(student.getId())));
+            assertEquals(1, studentQueries(() -> studentService.getStudentByEmail(student.getEmail())));
+            assertEquals(0, studentQueries(() -> studentService.getStudentByEmail(student.getEmail())));
+        } finally {
+            // The insert rolls back, so its entries must not outlive the test
+            cacheManager.getCache(CacheConfig.STUDENTS_BY_ID).evict(student.getId());
+            cacheManager.getCache(CacheConfig.STUDENTS_BY_EMAIL).evict(student.getEmail());
+        }
+    }
+
+    private static long studentQueries(Runnable read) {
+        SqlCapture.STATEMENTS.clear();
+        read.run();
+        return SqlCapture.STATEMENTS.stream().filter(sql -> STUDENTS_TABLE.matcher(sql).find()).count();
+    }
+
+    // 20 departments, years 1 to 4 and CGPAs from 4.00 to 10.00, written with plain JDBC so
+    // no audit records or change events are raised; committed so ANALYZE TABLE can see them
+    private void seedPlanStudents() {
+        SplittableRandom random = new SplittableRandom(19);
+        List<Object[]> rows = new ArrayList<>(PLAN_STUDENTS);
+        for (int i = 0; i < PLAN_STUDENTS; i++) {
+            rows.add(new Object[] { "Plan Student " + i, "plan" + i + PLAN_EMAIL_DOMAIN,
+                    "Plan Dept " + random.nextInt(PLAN_DEPARTMENTS), 1 + random.nextInt(4),
+                    (400 + random.nextInt(601)) / 100.0 });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO students (name, email, department, year, cgpa) VALUES (?, ?, ?, ?, ?)",
+                rows);
+        jdbcTemplate.execute("ANALYZE TABLE students");
+    }
+
+    private static StudentFilter filter(String department, Integer year, Double minCgpa, Double maxCgpa) {
+        return new StudentFilter(null, null, department, year, minCgpa, maxCgpa);
+    }
+
+    // Bind values in the order StudentSpecifications adds its predicates
+    private static Object[] parameters(StudentFilter filter) {
+        List<Object> values = new ArrayList<>();
+        if (filter.department() != null) {
+            values.add(filter.department());
+        }
+        if (filter.year() != null) {
+            values.add(filter.year());
+        }
+        if (filter.minCgpa() != null) {
+            values.add(filter.minCgpa());
+        }
+        if (filter.maxCgpa() != null) {
+            values.add(filter.maxCgpa());
+        }
+        return values.toArray();
+    }
+
+    public static class SqlCapture implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
 }
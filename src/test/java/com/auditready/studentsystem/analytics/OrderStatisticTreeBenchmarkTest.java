@@ -0,0 +1,91 @@
+package com.auditready.studentsystem.analytics;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Timings for the ranking tree at leaderboard scale. Run with {@code mvn test -Pbenchmark};
+ * each phase runs once to warm up and is reported from the second run.
+ */
+@Tag("benchmark")
+class OrderStatisticTreeBenchmarkTest {
+
+    private static final int ENTRIES = 1_000_000;
+    private static final int QUERIES = 200_000;
+    private static final Comparator<Score> ORDER = Comparator.comparingDouble(Score::cgpa).reversed()
+            .thenComparingLong(Score::id);
+
+    @Test
+    void rankingTreeAtOneMillionEntries() {
+        Score[] scores = new Score[ENTRIES];
+        SplittableRandom random = new SplittableRandom(1);
+        for (int i = 0; i < ENTRIES; i++) {
+            // Two-decimal CGPAs, so most entries tie with others as real grades do
+            scores[i] = new Score(i + 1, random.nextInt(1001) / 100.0);
+        }
+
+        OrderStatisticTree<Score> tree = null;
+        long buildNanos = 0;
+        for (int run = 0; run < 2; run++) {
+            long started = System.nanoTime();
+            tree = new OrderStatisticTree<>(ORDER);
+            for (Score score : scores) {
+                tree.insert(score);
+            }
+            buildNanos = System.nanoTime() - started;
+        }
+        assertEquals(ENTRIES, tree.size());
+
+        long rankNanos = 0;
+        long checksum = 0;
+        for (int run = 0; run < 2; run++) {
+            long started = System.nanoTime();
+            checksum = 0;
+            for (int i = 0; i < QUERIES; i++) {
+                Score score = scores[random.nextInt(ENTRIES)];
+                checksum += tree.countBefore(new Score(Long.MIN_VALUE, score.cgpa()));
+            }
+            rankNanos = System.nanoTime() - started;
+        }
+
+        long sliceNanos = 0;
+        for (int run = 0; run < 2; run++) {
+            long started = System.nanoTime();
+            for (int i = 0; i < QUERIES / 10; i++) {
+                int from = random.nextInt(ENTRIES - 50);
+                List<Score> page = tree.slice(from, from + 50);
+                checksum += page.size();
+            }
+            sliceNanos = System.nanoTime() - started;
+        }
+
+        // A CGPA change is a remove plus an insert
+        long updateNanos = 0;
+        for (int run = 0; run < 2; run++) {
+            long started = System.nanoTime();
+            for (int i = 0; i < QUERIES; i++) {
+                int index = random.nextInt(ENTRIES);
+                Score updated = new Score(scores[index].id(), random.nextInt(1001) / 100.0);
+                tree.remove(scores[index]);
+                tree.insert(updated);
+                scores[index] = updated;
+            }
+            updateNanos = System.nanoTime() - started;
+        }
+        assertEquals(ENTRIES, tree.size());
+
+        System.out.printf("Ranking tree, %d entries: build %d ms, rank %.2f us/op, top-50 slice %.2f us/op,"
+                + " update %.2f us/op (checksum %d)%n", ENTRIES, buildNanos / 1_000_000,
+                rankNanos / 1_000.0 / QUERIES, sliceNanos / 1_000.0 / (QUERIES / 10),
+                updateNanos / 1_000.0 / QUERIES, checksum);
+    }
+
+    private record Score(long id, double cgpa) {
+    }
+}
@@ -0,0 +1,102 @@
+package com.auditready.studentsystem.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OrderStatisticTreeTest {
+
+    // Same shape as the ranking order: highest score first, id breaks ties
+    private static final Comparator<Score> ORDER = Comparator.comparingDouble(Score::cgpa).reversed()
+            .thenComparingLong(Score::id);
+
+    @Test
+    void countBeforeSkipsEveryTieOfTheProbe() {
+        OrderStatisticTree<Score> tree = new OrderStatisticTree<>(ORDER);
+        tree.insert(new Score(1, 9.0));
+        tree.insert(new Score(2, 8.5));
+        tree.insert(new Score(3, 8.5));
+        tree.insert(new Score(4, 8.5));
+        tree.insert(new Score(5, 7.0));
+
+        assertEquals(0, tree.countBefore(probe(9.0)));
+        assertEquals(1, tree.countBefore(probe(8.5)));
+        assertEquals(4, tree.countBefore(probe(7.0)));
+        assertEquals(5, tree.countBefore(probe(6.0)));
+        assertEquals(2, tree.countBefore(new Score(3, 8.5)));
+    }
+
+    @Test
+    void sliceReturnsKeysAtPositionsInOrder() {
+        OrderStatisticTree<Score> tree = new OrderStatisticTree<>(ORDER);
+        for (int id = 1; id <= 10; id++) {
+            tree.insert(new Score(id, id % 3));
+        }
+        List<Score> sorted = new ArrayList<>(tree.slice(0, 10));
+
+        assertEquals(10, sorted.size());
+        for (int i = 1; i < sorted.size(); i++) {
+            assertTrue(ORDER.compare(sorted.get(i - 1), sorted.get(i)) < 0);
+        }
+        assertEquals(sorted.subList(3, 7), tree.slice(3, 7));
+        assertEquals(sorted.subList(8, 10), tree.slice(8, 50));
+        assertTrue(tree.slice(10, 20).isEmpty());
+        assertTrue(tree.slice(5, 5).isEmpty());
+    }
+
+    @Test
+    void removeTakesOutOnlyTheMatchingTie() {
+        OrderStatisticTree<Score> tree = new OrderStatisticTree<>(ORDER);
+        tree.insert(new Score(1, 8.0));
+        tree.insert(new Score(2, 8.0));
+        tree.insert(new Score(3, 8.0));
+
+        assertTrue(tree.remove(new Score(2, 8.0)));
+        assertFalse(tree.remove(new Score(2, 8.0)));
+        assertFalse(tree.remove(new Score(4, 8.0)));
+        assertEquals(List.of(new Score(1, 8.0), new Score(3, 8.0)), tree.slice(0, 3));
+        assertEquals(0, tree.countBefore(probe(8.0)));
+    }
+
+    @Test
+    void matchesSortedSetUnderRandomInsertsAndRemoves() {
+        Random random = new Random(42);
+        OrderStatisticTree<Score> tree = new OrderStatisticTree<>(ORDER);
+        TreeSet<Score> expected = new TreeSet<>(ORDER);
+        for (int i = 0; i < 20_000; i++) {
+            // Few distinct scores, so most keys tie with others
+            Score score = new Score(random.nextInt(2_000), random.nextInt(20) / 2.0);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(score), tree.remove(score));
+            } else if (expected.add(score)) {
+                tree.insert(score);
+            }
+        }
+
+        List<Score> all = new ArrayList<>(expected);
+        assertEquals(all.size(), tree.size());
+        assertEquals(all, tree.slice(0, all.size()));
+        for (int i = 0; i < 100; i++) {
+            Score probe = probe(random.nextInt(22) / 2.0);
+            assertEquals(expected.headSet(probe).size(), tree.countBefore(probe));
+        }
+        int from = all.size() / 3;
+        assertEquals(all.subList(from, from + 25), tree.slice(from, from + 25));
+    }
+
+    // Sorts before every key with the same score
+    private static Score probe(double cgpa) {
+        return new Score(Long.MIN_VALUE, cgpa);
+    }
+
+    private record Score(long id, double cgpa) {
+    }
+}
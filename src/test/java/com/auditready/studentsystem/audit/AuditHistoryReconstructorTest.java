@@ -0,0 +1,123 @@
+package com.auditready.studentsystem.audit;
+
+import com.auditready.studentsystem.entity.AuditLog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditHistoryReconstructorTest {
+
+    private static final String CREATED = "{\"id\":7,\"name\":\"Anna\",\"cgpa\":8.1,\"year\":2}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AuditPayloadCodec codec = new AuditPayloadCodec(true);
+    private final AuditHistoryReconstructor reconstructor = new AuditHistoryReconstructor(objectMapper, codec);
+
+    @Test
+    void rebuildsDeltasFromTheLastSnapshot() {
+        List<AuditLog> history = reconstructor.reconstruct(List.of(
+                snapshot(1, "CREATE", CREATED, null),
+                delta(2, "UPDATE", "[{\"field\":\"cgpa\",\"old\":8.1,\"new\":8.7}]"),
+                delta(3, "UPDATE", "[{\"field\":\"year\",\"old\":2,\"new\":3},"
+                        + "{\"field\":\"name\",\"old\":\"Anna\",\"new\":\"Anna Park\"}]")));
+
+        assertNull(history.get(0).getOldValues());
+        assertJson(CREATED, history.get(0).getNewValues());
+        assertJson(CREATED, history.get(1).getOldValues());
+        assertJson("{\"id\":7,\"name\":\"Anna\",\"cgpa\":8.7,\"year\":2}", history.get(1).getNewValues());
+        assertJson(history.get(1).getNewValues(), history.get(2).getOldValues());
+        assertJson("{\"id\":7,\"name\":\"Anna Park\",\"cgpa\":8.7,\"year\":3}", history.get(2).getNewValues());
+    }
+
+    @Test
+    void periodicSnapshotDerivesOldValuesFromItsDiff() {
+        List<AuditLog> history = reconstructor.reconstruct(List.of(
+                snapshot(1, "CREATE", CREATED, null),
+                snapshot(2, "UPDATE", "{\"id\":7,\"name\":\"Anna\",\"cgpa\":9.0,\"year\":2}",
+                        "[{\"field\":\"cgpa\",\"old\":8.1,\"new\":9.0}]"),
+                delta(3, "DELETE", null)));
+
+        assertJson(CREATED, history.get(1).getOldValues());
+        assertJson("{\"id\":7,\"name\":\"Anna\",\"cgpa\":9.0,\"year\":2}", history.get(1).getNewValues());
+        assertJson(history.get(1).getNewValues(), history.get(2).getOldValues());
+        assertNull(history.get(2).getNewValues());
+    }
+
+    @Test
+    void snapshotDeleteKeepsItsOwnOldValues() {
+        AuditLog delete = AuditLog.builder().id(2L).action("DELETE").entityName("STUDENT").entityId(7L)
+                .changedBy("admin").changedAt(LocalDateTime.of(2024, 5, 1, 10, 0))
+                .oldValues(codec.encode(CREATED)).compressed(true).payloadType(AuditPayloadType.SNAPSHOT).build();
+
+        List<AuditLog> history = reconstructor.reconstruct(List.of(delete));
+
+        assertJson(CREATED, history.get(0).getOldValues());
+        assertNull(history.get(0).getNewValues());
+    }
+
+    @Test
+    void legacyRowsPassThrough() {
+        AuditLog legacy = AuditLog.builder().id(1L).action("UPDATE").entityName("STUDENT").entityId(7L)
+                .changedBy("admin").changedAt(LocalDateTime.of(2024, 5, 1, 10, 0))
+                .oldValues("{\"cgpa\":8.1}").newValues("{\"cgpa\":8.2}").build();
+
+        AuditLog rebuilt = reconstructor.reconstruct(List.of(legacy)).get(0);
+
+        assertJson("{\"cgpa\":8.1}", rebuilt.getOldValues());
+        assertJson("{\"cgpa\":8.2}", rebuilt.getNewValues());
+        assertEquals(legacy.getId(), rebuilt.getId());
+    }
+
+    @Test
+    void deltaWithoutSnapshotHasNoValues() {
+        AuditLog rebuilt = reconstructor.reconstruct(List.of(
+                delta(5, "UPDATE", "[{\"field\":\"cgpa\",\"old\":8.1,\"new\":8.7}]"))).get(0);
+
+        assertNull(rebuilt.getOldValues());
+        assertNull(rebuilt.getNewValues());
+    }
+
+    @Test
+    void applyRunsChangesBothWaysAndIgnoresUnreadableDiffs() {
+        String diff = "[{\"field\":\"cgpa\",\"old\":8.1,\"new\":8.7},{\"field\":\"phone\",\"new\":\"555\"}]";
+
+        assertJson("{\"cgpa\":8.7,\"phone\":\"555\"}",
+                reconstructor.write(reconstructor.apply(reconstructor.parse("{\"cgpa\":8.1}"), diff, true)));
+        assertJson("{\"cgpa\":8.1,\"phone\":null}",
+                reconstructor.write(reconstructor.apply(reconstructor.parse("{\"cgpa\":8.7,\"phone\":\"555\"}"),
+                        diff, false)));
+        assertTrue(reconstructor.parseChanges("cgpa: 8.1 -> 8.7").isEmpty());
+        assertTrue(reconstructor.parseChanges("[{\"field\":").isEmpty());
+    }
+
+    private AuditLog snapshot(long id, String action, String state, String diff) {
+        return row(id, action).payloadType(AuditPayloadType.SNAPSHOT).newValues(codec.encode(state))
+                .compressed(codec.isCompressing()).diff(diff).build();
+    }
+
+    private static AuditLog delta(long id, String action, String diff) {
+        return row(id, action).payloadType(AuditPayloadType.DELTA).diff(diff).build();
+    }
+
+    private static AuditLog.AuditLogBuilder row(long id, String action) {
+        return AuditLog.builder().id(id).action(action).entityName("STUDENT").entityId(7L).changedBy("admin")
+                .changedAt(LocalDateTime.of(2024, 5, 1, 9, 0).plusMinutes(id));
+    }
+
+    private void assertJson(String expected, String actual) {
+        try {
+            JsonNode expectedNode = objectMapper.readTree(expected);
+            assertEquals(expectedNode, actual == null ? null : objectMapper.readTree(actual));
+        } catch (JsonProcessingException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.auditready.studentsystem.audit;
+
+import com.auditready.studentsystem.dto.AuditIntegrityReport;
+import com.auditready.studentsystem.entity.AuditSegment;
+import com.auditready.studentsystem.repository.AuditSegmentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Throughput of a full integrity check over archived segments: inflating the segment
+ * files, recomputing every row's chain hash and each segment's Merkle root. The database
+ * is stubbed out, so only the verifier's own work is timed. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class AuditIntegrityVerifierBenchmarkTest {
+
+    private static final int SEGMENTS = 16;
+    private static final int ROWS_PER_SEGMENT = 25_000;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void verifiesArchivedSegments() throws SQLException {
+        List<AuditSegment> segments = writeSegments();
+        AuditSegmentRepository segmentRepository = mock(AuditSegmentRepository.class);
+        when(segmentRepository.findAllByOrderByFirstLogIdAsc()).thenReturn(segments);
+        AuditArchive archive = mock(AuditArchive.class);
+        doAnswer(invocation -> {
+            AuditSegment segment = invocation.getArgument(0);
+            Consumer<AuditHashChain.StoredRow> consumer = invocation.getArgument(1);
+            AuditSegmentFile.open(directory.resolve(segment.getArchiveFile())).forEach(block -> true, consumer);
+            return null;
+        }).when(archive).forEachRow(any(), any());
+
+        long rows = (long) SEGMENTS * ROWS_PER_SEGMENT;
+        for (int parallelism : new int[] { 1, 0 }) {
+            AuditIntegrityVerifier verifier = new AuditIntegrityVerifier(mock(AuditHashChain.class), archive,
+                    segmentRepository, emptyDatabase(), mock(PlatformTransactionManager.class),
+                    new SimpleMeterRegistry(), parallelism, 10);
+            try {
+                verifier.verify(true);
+                AuditIntegrityReport report = verifier.verify(true);
+
+                assertTrue(report.intact(), () -> report.violations().toString());
+                assertEquals(rows, report.rowsVerified());
+                System.out.printf("Integrity check, %d rows in %d segments, parallelism %s: %d ms, %.0f rows/s%n",
+                        rows, SEGMENTS, parallelism == 0 ? "default" : parallelism, report.elapsedMs(),
+                        report.rowsPerSecond());
+            } finally {
+                verifier.stop();
+            }
+        }
+    }
+
+    private List<AuditSegment> writeSegments() {
+        MessageDigest digest = AuditHashChain.sha256();
+        List<AuditSegment> segments = new ArrayList<>(SEGMENTS);
+        String previous = AuditHashChain.GENESIS;
+        long id = 1;
+        LocalDateTime changedAt = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int s = 0; s < SEGMENTS; s++) {
+            String file = "segment-" + s + ".aseg";
+            String prevHash = previous;
+            long firstId = id;
+            List<String> hashes = new ArrayList<>(ROWS_PER_SEGMENT);
+            try (AuditSegmentFile.Writer writer = AuditSegmentFile.create(directory.resolve(file), 256)) {
+                for (int i = 0; i < ROWS_PER_SEGMENT; i++, id++) {
+                    changedAt = changedAt.plusNanos(1_500_000);
+                    AuditRecord record = new AuditRecord(0, "UPDATE", "STUDENT", id % 5_000, "staff", changedAt,
+                            null, null, "[{\"field\":\"cgpa\",\"old\":" + (id % 10) + ".25,\"new\":" + (id % 10)
+                                    + ".5},{\"field\":\"address\",\"old\":\"12 Main St\",\"new\":\"14 Elm St\"}]",
+                            AuditPayloadType.DELTA, false, null);
+                    previous = AuditHashChain.hash(digest, previous, record);
+                    hashes.add(previous);
+                    writer.append(new AuditHashChain.StoredRow(id, record, previous));
+                }
+                writer.commit();
+            }
+            segments.add(AuditSegment.builder()
+                    .id((long) s + 1)
+                    .firstLogId(firstId)
+                    .lastLogId(id - 1)
+                    .rowCount(ROWS_PER_SEGMENT)
+                    .prevHash(prevHash)
+                    .endHash(previous)
+                    .merkleRoot(AuditHashChain.merkleRoot(hashes))
+                    .archiveFile(file)
+                    .build());
+        }
+        return segments;
+    }
+
+    // Answers the verifier's MIN(id) probes with NULL: no rows outside the archived segments
+    private static DataSource emptyDatabase() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.prepareStatement(anyString())).thenAnswer(invocation -> {
+            ResultSetMetaData metaData = mock(ResultSetMetaData.class);
+            when(metaData.getColumnCount()).thenReturn(1);
+            ResultSet resultSet = mock(ResultSet.class);
+            when(resultSet.next()).thenReturn(true, false);
+            when(resultSet.getMetaData()).thenReturn(metaData);
+            when(resultSet.wasNull()).thenReturn(true);
+            PreparedStatement statement = mock(PreparedStatement.class);
+            when(statement.executeQuery()).thenReturn(resultSet);
+            return statement;
+        });
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        return dataSource;
+    }
+}
@@ -0,0 +1,156 @@
+package com.auditready.studentsystem.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditJournalTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<AuditJournal> opened = new ArrayList<>();
+
+    @TempDir
+    Path directory;
+
+    @AfterEach
+    void closeJournals() throws IOException {
+        for (AuditJournal journal : opened) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void replaysSegmentsThatStillHoldUnflushedRecords() {
+        AuditJournal journal = open(8192);
+        journal.recover(0);
+        AuditRecord first = journal.append(record(1), true);
+        AuditRecord second = journal.append(record(2), true);
+        AuditRecord third = journal.append(record(3), true);
+        journal.markFlushed(List.of(second));
+
+        // At-least-once: the flushed record shares a segment, and the writer skips its seq
+        assertEquals(List.of(first, second, third), open(8192).recover(0));
+    }
+
+    @Test
+    void doesNotReplayFlushedSegments() {
+        // One record per segment
+        AuditJournal journal = open(1);
+        journal.recover(0);
+        AuditRecord first = journal.append(record(1), true);
+        AuditRecord second = journal.append(record(2), true);
+        AuditRecord third = journal.append(record(3), true);
+        journal.markFlushed(List.of(second));
+
+        assertEquals(List.of(first, third), open(1).recover(0));
+    }
+
+    @Test
+    void doesNotReplayRolledBackRecords() {
+        AuditJournal journal = open(8192);
+        journal.recover(0);
+        AuditRecord kept = journal.append(record(1), true);
+        AuditRecord rolledBack = journal.append(record(2), true);
+        journal.abort(List.of(rolledBack));
+
+        assertEquals(List.of(kept), open(8192).recover(0));
+    }
+
+    @Test
+    void abortMarkerInLaterSegmentStillCancelsItsRecord() {
+        // One record per segment, so the marker lands in a different file than its record
+        AuditJournal journal = open(1);
+        journal.recover(0);
+        AuditRecord rolledBack = journal.append(record(1), true);
+        AuditRecord kept = journal.append(record(2), true);
+        journal.abort(List.of(rolledBack));
+
+        assertEquals(List.of(kept), open(1).recover(0));
+    }
+
+    @Test
+    void deletesSegmentsOnceEveryRecordIsFlushed() {
+        AuditJournal journal = open(1);
+        journal.recover(0);
+        List<AuditRecord> records = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            records.add(journal.append(record(i), true));
+        }
+        assertEquals(5, journal.segmentCount());
+
+        journal.markFlushed(records);
+
+        assertEquals(1, journal.segmentCount());
+        assertTrue(open(1).recover(0).isEmpty());
+    }
+
+    @Test
+    void recoveredSegmentsAreDeletedOnceReplayed() {
+        AuditJournal journal = open(1);
+        journal.recover(0);
+        for (int i = 1; i <= 3; i++) {
+            journal.append(record(i), true);
+        }
+
+        AuditJournal restarted = open(1);
+        List<AuditRecord> recovered = restarted.recover(0);
+        assertEquals(3, recovered.size());
+        restarted.markFlushed(recovered);
+
+        assertEquals(1, restarted.segmentCount());
+    }
+
+    @Test
+    void sequenceNumbersKeepIncreasingAcrossRestarts() {
+        AuditJournal journal = open(8192);
+        journal.recover(0);
+        journal.append(record(1), true);
+        journal.append(record(2), true);
+
+        AuditJournal restarted = open(8192);
+        restarted.recover(0);
+        assertEquals(3, restarted.append(record(3), true).seq());
+
+        // Records already in the database may be newer than anything left in the journal
+        AuditJournal afterDatabase = open(8192);
+        afterDatabase.recover(100);
+        assertEquals(101, afterDatabase.append(record(4), true).seq());
+    }
+
+    @Test
+    void skipsTornFinalLine() throws IOException {
+        AuditJournal journal = open(8192);
+        journal.recover(0);
+        AuditRecord written = journal.append(record(1), true);
+        Path segment = directory.resolve("audit-journal.log.1");
+        Files.writeString(segment, "{\"seq\":2,\"action\":\"CRE", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        assertEquals(List.of(written), open(8192).recover(0));
+    }
+
+    private AuditJournal open(long segmentBytes) {
+        AuditJournal journal = new AuditJournal(objectMapper, directory.resolve("audit-journal.log").toString(),
+                false, segmentBytes);
+        opened.add(journal);
+        return journal;
+    }
+
+    private static AuditRecord record(long entityId) {
+        return new AuditRecord(0, "CREATE", "STUDENT", entityId, "admin",
+                LocalDateTime.of(2024, 5, 1, 9, 30).plusSeconds(entityId), null, "{\"id\":" + entityId + "}", null,
+                "FULL", false, "Physics");
+    }
+}
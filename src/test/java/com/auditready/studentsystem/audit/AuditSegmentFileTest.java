@@ -0,0 +1,125 @@
+package com.auditready.studentsystem.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AuditSegmentFileTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 12, 0, 0, 123_456_789);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackEveryRowInIdOrder() {
+        List<AuditHashChain.StoredRow> rows = rows(7);
+        Path file = write(rows, 3);
+
+        AuditSegmentFile segment = AuditSegmentFile.open(file);
+        List<AuditHashChain.StoredRow> read = new ArrayList<>();
+        segment.forEach(block -> true, read::add);
+
+        assertEquals(rows.stream().map(AuditSegmentFileTest::asStored).toList(), read);
+    }
+
+    @Test
+    void indexDescribesEachBlock() {
+        Path file = write(rows(7), 3);
+
+        List<AuditSegmentFile.Block> blocks = AuditSegmentFile.open(file).blocks();
+
+        assertEquals(3, blocks.size());
+        assertEquals(List.of(100L, 103L, 106L), blocks.stream().map(AuditSegmentFile.Block::firstId).toList());
+        assertEquals(List.of(102L, 105L, 106L), blocks.stream().map(AuditSegmentFile.Block::lastId).toList());
+        assertEquals(List.of(3, 3, 1), blocks.stream().map(AuditSegmentFile.Block::rows).toList());
+        assertEquals(START.plusMinutes(3).withNano(123_456_000), blocks.get(1).minChangedAt());
+        assertEquals(START.plusMinutes(5).withNano(123_456_000), blocks.get(1).maxChangedAt());
+    }
+
+    @Test
+    void skipsBlocksRejectedByTheFilter() {
+        Path file = write(rows(7), 3);
+
+        List<Long> ids = new ArrayList<>();
+        AuditSegmentFile.open(file).forEach(block -> block.firstId() == 103, row -> ids.add(row.id()));
+
+        assertEquals(List.of(103L, 104L, 105L), ids);
+    }
+
+    @Test
+    void rejectsCorruptFooter() throws IOException {
+        Path file = write(rows(4), 2);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, 0xDEADBEEF), channel.size() - Integer.BYTES);
+        }
+
+        assertThrows(UncheckedIOException.class, () -> AuditSegmentFile.open(file));
+    }
+
+    @Test
+    void rejectsTruncatedFile() throws IOException {
+        Path file = write(rows(4), 2);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(6);
+        }
+
+        assertThrows(UncheckedIOException.class, () -> AuditSegmentFile.open(file));
+    }
+
+    @Test
+    void uncommittedWriterLeavesNoFile() {
+        Path target = directory.resolve("segment-1.aseg");
+        try (AuditSegmentFile.Writer writer = AuditSegmentFile.create(target, 2)) {
+            rows(3).forEach(writer::append);
+        }
+
+        assertFalse(Files.exists(target));
+        assertFalse(Files.exists(directory.resolve("segment-1.aseg.tmp")));
+    }
+
+    private Path write(List<AuditHashChain.StoredRow> rows, int blockRows) {
+        Path target = directory.resolve("segment-1.aseg");
+        try (AuditSegmentFile.Writer writer = AuditSegmentFile.create(target, blockRows)) {
+            rows.forEach(writer::append);
+            writer.commit();
+        }
+        return target;
+    }
+
+    // Nullable columns alternate so both encodings are exercised
+    private static List<AuditHashChain.StoredRow> rows(int count) {
+        List<AuditHashChain.StoredRow> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            boolean odd = i % 2 == 1;
+            AuditRecord record = new AuditRecord(0, "UPDATE", "STUDENT", odd ? null : 40L + i, "admin",
+                    START.plusMinutes(i), odd ? null : "{\"name\":\"Zo\u00eb " + i + "\"}", "{\"cgpa\":" + i + "}",
+                    odd ? "[]" : null, "DELTA", odd ? null : i % 4 == 0, null);
+            rows.add(new AuditHashChain.StoredRow(100 + i, record, "%064x".formatted(i)));
+        }
+        return rows;
+    }
+
+    // The file keeps timestamps at the database's microsecond precision
+    private static AuditHashChain.StoredRow asStored(AuditHashChain.StoredRow row) {
+        AuditRecord r = row.record();
+        AuditRecord stored = new AuditRecord(0, r.action(), r.entityName(), r.entityId(), r.changedBy(),
+                AuditHashChain.storedTime(r.changedAt()), r.oldValues(), r.newValues(), r.diff(), r.payloadType(),
+                r.compressed(), null);
+        return new AuditHashChain.StoredRow(row.id(), stored, row.rowHash());
+    }
+}
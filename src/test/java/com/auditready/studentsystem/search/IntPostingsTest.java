@@ -0,0 +1,73 @@
+package com.auditready.studentsystem.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntPostingsTest {
+
+    @Test
+    void keepsIdsSortedAndUnique() {
+        IntPostings postings = new IntPostings();
+        for (int id : new int[] { 5, 9, 2, 9, 7, 1, 5, 12 }) {
+            postings.add(id);
+        }
+
+        assertArrayEquals(new int[] { 1, 2, 5, 7, 9, 12 }, toArray(postings));
+    }
+
+    @Test
+    void removeOnlyTakesOutPresentIds() {
+        IntPostings postings = new IntPostings();
+        postings.add(3);
+        postings.add(4);
+        postings.add(8);
+
+        postings.remove(4);
+        postings.remove(6);
+
+        assertArrayEquals(new int[] { 3, 8 }, toArray(postings));
+        assertFalse(postings.contains(4));
+        assertTrue(postings.contains(8));
+
+        postings.remove(3);
+        postings.remove(8);
+        assertTrue(postings.isEmpty());
+    }
+
+    @Test
+    void matchesSortedSetUnderRandomChanges() {
+        Random random = new Random(7);
+        IntPostings postings = new IntPostings();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            int id = random.nextInt(500);
+            if (random.nextInt(4) == 0) {
+                postings.remove(id);
+                expected.remove(id);
+            } else {
+                postings.add(id);
+                expected.add(id);
+            }
+        }
+
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), toArray(postings));
+        for (int id = 0; id < 500; id++) {
+            assertEquals(expected.contains(id), postings.contains(id));
+        }
+    }
+
+    private static int[] toArray(IntPostings postings) {
+        int[] ids = new int[postings.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = postings.get(i);
+        }
+        return ids;
+    }
+}
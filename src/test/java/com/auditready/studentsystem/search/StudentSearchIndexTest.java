@@ -0,0 +1,123 @@
+package com.auditready.studentsystem.search;
+
+import com.auditready.studentsystem.dto.StudentDto;
+import com.auditready.studentsystem.dto.StudentSearchHit;
+import com.auditready.studentsystem.event.StudentChangedEvent;
+import com.auditready.studentsystem.repository.StudentJdbcRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+class StudentSearchIndexTest {
+
+    private static final Set<StudentSearchIndex.Field> ALL = EnumSet.allOf(StudentSearchIndex.Field.class);
+
+    private StudentSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        // Fed from change events only, so no repository is needed
+        index = new StudentSearchIndex(null);
+        add(student(1L, "John Doe", "john.doe@example.com", "Computer Science"));
+        add(student(2L, "Mark Johnson", "mark.j@example.com", "Mathematics"));
+        add(student(3L, "Anna Lee", "anna@uni.edu", "Physics"));
+    }
+
+    @Test
+    void shortTermsMatchWordStarts() {
+        assertEquals(List.of(2L), ids(index.search("ma", EnumSet.of(StudentSearchIndex.Field.NAME), 10)));
+        assertEquals(List.of(1L, 2L), ids(index.search("j", EnumSet.of(StudentSearchIndex.Field.NAME), 10)));
+        assertTrue(index.search("oe", EnumSet.of(StudentSearchIndex.Field.NAME), 10).isEmpty());
+    }
+
+    @Test
+    void coversOnlyTermsOfAtLeastATrigram() {
+        assertTrue(index.covers("joh", null));
+        assertTrue(index.covers(" ", "doe"));
+        assertFalse(index.covers("jo", ""));
+        assertFalse(index.covers("john", "d"));
+    }
+
+    @Test
+    void longTermsMatchSubstringsOnly() {
+        assertEquals(List.of(2L), ids(index.search("ohns", EnumSet.of(StudentSearchIndex.Field.NAME), 10)));
+        assertEquals(List.of(1L), ids(index.search("n doe", EnumSet.of(StudentSearchIndex.Field.NAME), 10)));
+        assertTrue(index.search("jon", ALL, 10).isEmpty());
+    }
+
+    @Test
+    void matchingIsCaseInsensitiveButNotTrimmed() {
+        assertEquals(List.of(3L), ids(index.search("PHYS", ALL, 10)));
+        // LIKE '% phys %' matches nothing either
+        assertTrue(index.search(" phys ", ALL, 10).isEmpty());
+    }
+
+    @Test
+    void departmentsMatchAnywhereInTheValue() {
+        assertEquals(List.of(1L), ids(index.search("sci", EnumSet.of(StudentSearchIndex.Field.DEPARTMENT), 10)));
+        assertEquals(List.of(2L), ids(index.search("at", EnumSet.of(StudentSearchIndex.Field.DEPARTMENT), 10)));
+    }
+
+    @Test
+    void ranksByFieldWeightAndMatchQuality() {
+        List<StudentSearchHit> hits = index.search("john", ALL, 10);
+
+        // John Doe matches as a name and an email prefix, Mark Johnson only at the start of a word
+        assertEquals(List.of(1L, 2L), ids(hits));
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+        assertEquals(List.of(1L), ids(index.search("john", ALL, 1)));
+    }
+
+    @Test
+    void updatesAndDeletesReplaceIndexedValues() {
+        StudentDto before = student(3L, "Anna Lee", "anna@uni.edu", "Physics");
+        StudentDto after = student(3L, "Anna Park", "anna@uni.edu", "Chemistry");
+        index.onStudentChanged(StudentChangedEvent.updated(before, after));
+
+        assertTrue(index.search("lee", ALL, 10).isEmpty());
+        assertTrue(index.search("phy", ALL, 10).isEmpty());
+        assertEquals(List.of(3L), ids(index.search("park", EnumSet.of(StudentSearchIndex.Field.NAME), 10)));
+        assertEquals(List.of(3L), ids(index.search("chem", ALL, 10)));
+
+        index.onStudentChanged(StudentChangedEvent.deleted(after));
+        assertTrue(index.search("anna", ALL, 10).isEmpty());
+    }
+
+    @Test
+    void matchAllRequiresBothTerms() {
+        assertEquals(List.of(1L, 2L), index.matchAll("joh", ""));
+        assertEquals(List.of(2L), index.matchAll("joh", "mark"));
+        assertTrue(index.matchAll("anna", "example").isEmpty());
+    }
+
+    @Test
+    void idsBeyondIntRangeSendQueriesToTheDatabase() {
+        StudentSearchIndex built = new StudentSearchIndex(mock(StudentJdbcRepository.class));
+        built.rebuild();
+        assertTrue(built.isReady());
+
+        built.onStudentChanged(StudentChangedEvent.created(
+                student(Integer.MAX_VALUE + 1L, "Big Id", "big@example.com", "Physics")));
+        assertFalse(built.isReady());
+    }
+
+    private void add(StudentDto student) {
+        index.onStudentChanged(StudentChangedEvent.created(student));
+    }
+
+    private static StudentDto student(Long id, String name, String email, String department) {
+        return new StudentDto(id, name, email, null, department, 2, null, 8.0, null, null, null, 0L);
+    }
+
+    private static List<Long> ids(List<StudentSearchHit> hits) {
+        return hits.stream().map(StudentSearchHit::id).toList();
+    }
+}